@@ -0,0 +1,77 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import io.jenkins.plugins.luxair.util.TagFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Filters and orders 10000 tags with {@link ImageTag#filterTags} for every {@link Ordering}, returning all of them or
+ * only the first 50. The creation times for {@link Ordering#DSC_CREATED} are put into {@link ManifestCache} up front,
+ * so no registry is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageTagBenchmark {
+
+    private static final String REGISTRY = "https://registry.example.com";
+    private static final String IMAGE = "library/app";
+
+    @Param({"NATURAL", "REV_NATURAL", "DSC_VERSION", "ASC_VERSION", "DSC_CREATED"})
+    private Ordering ordering;
+
+    @Param({"0", "50"})
+    private int maxTags;
+
+    @Param({".*", ".*-alpine"})
+    private String filter;
+
+    // held, so the level set stays in effect
+    private final Logger logger = Logger.getLogger(ImageTag.class.getName());
+    private List<String> tags;
+    private TagQuery query;
+
+    @Setup
+    public void setUp() {
+        logger.setLevel(Level.WARNING);
+        String[] suffixes = {"", "-alpine", "-jdk17"};
+        tags = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            tags.add(i / 1000 + "." + i / 10 % 100 + "." + i % 10 + suffixes[i % suffixes.length]);
+        }
+        Collections.shuffle(tags, new Random(42));
+
+        ImageTagCache.Key key = new ImageTagCache.Key(REGISTRY, IMAGE, ImageTag.credentialFingerprint("", ""));
+        for (int i = 0; i < tags.size(); i++) {
+            ManifestCache.putCreated(key, tags.get(i), "sha256:" + i, i * 60_000L);
+        }
+        query = new TagQuery(IMAGE, REGISTRY, TagFilter.compile(filter), "", "", ordering, true, maxTags);
+    }
+
+    @Benchmark
+    public List<String> filterTags() {
+        return ImageTag.filterTags(tags, query).getValue();
+    }
+}
@@ -0,0 +1,69 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.util.VersionKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Orders already filtered tags with {@link ImageTag#sortTopN}, as strings and as parsed versions, fully sorted or
+ * selecting the first 50 with the bounded heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortTopNBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int tags;
+
+    @Param({"0", "50"})
+    private int maxTags;
+
+    private List<String> names;
+    private List<VersionKey> versions;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(tags);
+        for (int i = 0; i < tags; i++) {
+            names.add(i / 10000 + "." + i / 100 % 100 + "." + i % 100);
+        }
+        Collections.shuffle(names, new Random(42));
+        versions = names.stream().map(VersionKey::new).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> natural() {
+        return ImageTag.sortTopN(names, Collections.reverseOrder(), maxTags);
+    }
+
+    @Benchmark
+    public List<VersionKey> descendingVersions() {
+        return ImageTag.sortTopN(versions, Comparator.reverseOrder(), maxTags);
+    }
+
+    @Benchmark
+    public List<VersionKey> ascendingVersions() {
+        return ImageTag.sortTopN(versions, Comparator.naturalOrder(), maxTags);
+    }
+}
@@ -0,0 +1,68 @@
+package io.jenkins.plugins.luxair.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters 10000 tags with {@link TagFilter}, against {@link String#matches(String)} as used before, for a match-all
+ * filter, each literal fast path and a pattern needing the regex engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagFilterBenchmark {
+
+    @Param({".*", "1\\.2\\.3-alpine", "1\\.2.*", ".*-alpine", ".*jdk17.*", "^\\d+\\.\\d+\\.\\d+$"})
+    private String pattern;
+
+    private List<String> tags;
+    private TagFilter filter;
+
+    @Setup
+    public void setUp() {
+        String[] suffixes = {"", "-alpine", "-jdk17", "-jdk21-alpine"};
+        tags = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            tags.add(i / 1000 + "." + i / 10 % 100 + "." + i % 10 + suffixes[i % suffixes.length]);
+        }
+        filter = TagFilter.compile(pattern);
+    }
+
+    @Benchmark
+    public int tagFilter() {
+        int matches = 0;
+        for (String tag : tags) {
+            if (filter.test(tag)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int stringMatches() {
+        int matches = 0;
+        for (String tag : tags) {
+            if (tag.matches(pattern)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
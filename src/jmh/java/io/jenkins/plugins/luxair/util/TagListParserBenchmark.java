@@ -0,0 +1,54 @@
+package io.jenkins.plugins.luxair.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses {@code tags/list} responses of growing size, run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagListParserBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int tags;
+
+    private byte[] content;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"name\":\"library/app\",\"tags\":[");
+        for (int i = 0; i < tags; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(i / 1000).append('.').append(i / 10 % 100).append('.').append(i % 10)
+                .append(i % 3 == 0 ? "-alpine" : "").append('"');
+        }
+        content = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int parse(Blackhole blackhole) throws IOException {
+        return TagListParser.parse(new ByteArrayInputStream(content), blackhole::consume);
+    }
+}
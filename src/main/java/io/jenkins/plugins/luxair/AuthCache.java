@@ -0,0 +1,98 @@
+package io.jenkins.plugins.luxair;
+
+import jenkins.util.SystemProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the parsed {@code Www-Authenticate} challenge of each registry and the Bearer tokens handed out by their
+ * token services, so a tag lookup does not need to probe {@code /v2/} and fetch a new token every time.
+ */
+public final class AuthCache {
+
+    private static final long CHALLENGE_TTL = TimeUnit.MINUTES.toMillis(
+        SystemProperties.getInteger(AuthCache.class.getName() + ".challengeTtlMinutes", 60));
+    private static final int MAX_TOKENS = SystemProperties.getInteger(AuthCache.class.getName() + ".maxTokens", 1000);
+    // Token lifetime assumed by the distribution spec when the token service does not send one
+    private static final int DEFAULT_EXPIRES_IN = 60;
+    // Tokens are dropped this long before they actually expire to cover clock skew and slow requests
+    private static final long EXPIRY_MARGIN = TimeUnit.SECONDS.toMillis(10);
+
+    private static final Map<String, Expiring<String[]>> challenges = new ConcurrentHashMap<>();
+    private static final Map<TokenKey, Expiring<String>> tokens = new ConcurrentHashMap<>();
+
+    private AuthCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static String[] getChallenge(String registry) {
+        Expiring<String[]> challenge = challenges.get(registry);
+        if (challenge == null || challenge.isExpired()) {
+            return null;
+        }
+        return challenge.value.clone();
+    }
+
+    public static void putChallenge(String registry, String[] authService) {
+        challenges.put(registry, new Expiring<>(authService.clone(), System.currentTimeMillis() + CHALLENGE_TTL));
+    }
+
+    public static String getToken(TokenKey key) {
+        Expiring<String> token = tokens.get(key);
+        if (token == null || token.isExpired()) {
+            return null;
+        }
+        return token.value;
+    }
+
+    /**
+     * @param issuedAt  epoch millis the token was issued at, as reported by the token service or the local clock
+     * @param expiresIn lifetime of the token in seconds, non positive values fall back to the spec default
+     */
+    public static void putToken(TokenKey key, String token, long issuedAt, int expiresIn) {
+        long lifetime = TimeUnit.SECONDS.toMillis(expiresIn > 0 ? expiresIn : DEFAULT_EXPIRES_IN);
+        long expiresAt = Math.min(issuedAt, System.currentTimeMillis()) + lifetime - EXPIRY_MARGIN;
+        if (tokens.size() >= MAX_TOKENS) {
+            tokens.values().removeIf(Expiring::isExpired);
+            if (tokens.size() >= MAX_TOKENS) {
+                tokens.clear();
+            }
+        }
+        tokens.put(key, new Expiring<>(token, expiresAt));
+    }
+
+    /**
+     * Forgets everything known about a registry, e.g. after it rejected a cached token.
+     */
+    public static void invalidate(String registry, TokenKey key) {
+        challenges.remove(registry);
+        tokens.remove(key);
+    }
+
+    public static void clear() {
+        challenges.clear();
+        tokens.clear();
+    }
+
+    /**
+     * A token is only valid for the realm and service that issued it, the requested scope and the credential used.
+     */
+    public record TokenKey(String realm, String service, String scope, String credential) {
+    }
+
+    private static final class Expiring<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Expiring(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The repositories of each registry, as listed by its {@code /v2/_catalog}, to autocomplete the image name of a
+ * parameter while it is configured.
+ * <p>
+ * The names are kept sorted, so completing a prefix is a binary search followed by a scan over the matching range
+ * instead of a request to the registry per keystroke. A catalog is fetched once per registry and credential, and
+ * refreshed in the background every {@code refreshMinutes} while it is still being served, with at most one refresh
+ * per catalog queued at a time. Registries refusing the catalog are asked again only after the same time.
+ */
+public final class CatalogIndex {
+
+    private static final Logger logger = Logger.getLogger(CatalogIndex.class.getName());
+    private static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(
+        SystemProperties.getInteger(CatalogIndex.class.getName() + ".refreshMinutes", 15));
+
+    private static final Map<Key, Catalog> catalogs = new ConcurrentHashMap<>();
+    private static final Map<Key, CompletableFuture<Catalog>> inFlight = new ConcurrentHashMap<>();
+    private static final ExecutorService refresher = createRefresher();
+
+    private CatalogIndex() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static ExecutorService createRefresher() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(100),
+            new NamedThreadFactory(new DaemonThreadFactory(), "CatalogIndex refresh"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Completes the given prefix of an image name with the repositories of the registry. Only the first completion of
+     * a registry waits for its catalog, later ones are answered from memory.
+     *
+     * @param prefix the beginning of the image name, all repositories match an empty one
+     * @param limit  the maximum number of repositories returned
+     * @return the matching repositories in alphabetical order, or the reason why the catalog is unavailable
+     */
+    public static ResultContainer<List<String>> complete(String registry, String user, String password,
+                                                         boolean verifySsl, String prefix, int limit) {
+        Key key = new Key(registry, ImageTag.credentialFingerprint(user, password), verifySsl);
+        Catalog catalog = catalogs.get(key);
+        if (catalog == null) {
+            try {
+                catalog = load(key, user, password).join();
+            } catch (CompletionException | CancellationException e) {
+                logger.log(Level.WARNING, "Unable to list the repositories of " + registry, e);
+                ResultContainer<List<String>> container = new ResultContainer<>(Collections.emptyList());
+                container.setErrorMsg("Unable to list the repositories: " + e.getMessage());
+                return container;
+            }
+        } else if (System.currentTimeMillis() - catalog.fetchedAt >= REFRESH_INTERVAL) {
+            scheduleRefresh(key, catalog, user, password);
+        }
+
+        ResultContainer<List<String>> container = new ResultContainer<>(catalog.search(prefix, limit));
+        if (catalog.errorMsg != null) {
+            container.setErrorMsg(catalog.errorMsg);
+        }
+        return container;
+    }
+
+    /**
+     * Queues a single refresh per stale catalog, however many completions are requested while it is waiting.
+     */
+    private static void scheduleRefresh(Key key, Catalog catalog, String user, String password) {
+        if (!catalog.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(key, user, password);
+                } finally {
+                    catalog.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.fine(() -> "Refresh queue full, serving the stale catalog of " + key.registry());
+            catalog.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Fetches the catalog of a registry, unless that is already in progress, and replaces the one held.
+     */
+    private static CompletableFuture<Catalog> load(Key key, String user, String password) {
+        CompletableFuture<Catalog> future = new CompletableFuture<>();
+        CompletableFuture<Catalog> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        try {
+            ResultContainer<List<String>> result = ImageTag.getCatalog(key.registry(), user, password, key.verifySsl());
+            Catalog previous = catalogs.get(key);
+            Catalog catalog;
+            if (result.getErrorMsg().isPresent()) {
+                // keep completing with the last catalog received, but do not ask the registry again right away
+                String[] names = previous != null ? previous.names : new String[0];
+                catalog = new Catalog(names, System.currentTimeMillis(), result.getErrorMsg().get());
+            } else {
+                String[] names = result.getValue().toArray(new String[0]);
+                Arrays.sort(names);
+                catalog = new Catalog(names, System.currentTimeMillis(), null);
+                logger.fine(() -> "Indexed " + names.length + " repositories of " + key.registry());
+            }
+            catalogs.put(key, catalog);
+            future.complete(catalog);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+        return future;
+    }
+
+    private record Key(String registry, String credential, boolean verifySsl) {
+    }
+
+    private static final class Catalog {
+        // the repository names, sorted
+        private final String[] names;
+        // when the catalog was (last tried to be) fetched
+        private final long fetchedAt;
+        // why the last fetch failed, null if it did not
+        private final String errorMsg;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Catalog(String[] names, long fetchedAt, String errorMsg) {
+            this.names = names;
+            this.fetchedAt = fetchedAt;
+            this.errorMsg = errorMsg;
+        }
+
+        private List<String> search(String prefix, int limit) {
+            // repository names are lower case by specification
+            String needle = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+            int from = Arrays.binarySearch(names, needle);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            List<String> matches = new ArrayList<>(Math.min(Math.max(limit, 0), 64));
+            for (int i = from; i < names.length && matches.size() < limit && names[i].startsWith(needle); i++) {
+                matches.add(names[i]);
+            }
+            return Collections.unmodifiableList(matches);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.jenkins.plugins.luxair;
+
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import jenkins.util.SystemProperties;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Remembers which credential an id resolved to for an item and authentication, so rendering a parameter does not
+ * scan all credentials visible to the item (possibly from slow external providers) every time.
+ * <p>
+ * Entries are dropped after {@code ttlSeconds}, and all of them as soon as a credentials store kept by Jenkins is
+ * saved: the system store, the store of a folder or the one of a user. Changes of external providers are only picked
+ * up once the entries expired.
+ */
+public final class CredentialCache {
+
+    private static final Logger logger = Logger.getLogger(CredentialCache.class.getName());
+    private static final long TTL = TimeUnit.SECONDS.toMillis(
+        SystemProperties.getInteger(CredentialCache.class.getName() + ".ttlSeconds", 60));
+    private static final int MAX_ENTRIES = SystemProperties.getInteger(CredentialCache.class.getName() + ".maxEntries", 1000);
+
+    private static final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private CredentialCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the credential the given id resolved to recently, or resolves it with the given lookup.
+     *
+     * @return the credential, {@code null} if the lookup did not find one
+     */
+    public static StandardUsernamePasswordCredentials get(Item context, Authentication authentication,
+                                                          String credentialId,
+                                                          Supplier<StandardUsernamePasswordCredentials> lookup) {
+        if (TTL <= 0) {
+            return lookup.get();
+        }
+        Key key = new Key(context != null ? context.getFullName() : "", authentication.getName(), credentialId);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.credential;
+        }
+
+        StandardUsernamePasswordCredentials credential = lookup.get();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(expired -> expired.expiresAt <= now);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(credential, now + TTL));
+        return credential;
+    }
+
+    public static void clear() {
+        entries.clear();
+    }
+
+    private record Key(String item, String authentication, String credentialId) {
+    }
+
+    private record Entry(StandardUsernamePasswordCredentials credential, long expiresAt) {
+    }
+
+    /**
+     * Invalidates the cache whenever a configuration that may hold credentials is saved.
+     */
+    @Extension
+    public static class Invalidator extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof SystemCredentialsProvider || o instanceof ItemGroup || o instanceof User) {
+                logger.fine(() -> "Credentials may have changed with " + file + ", clearing the credential cache");
+                clear();
+            }
+        }
+    }
+}
@@ -12,7 +12,7 @@ public class ErrorInterceptor implements Interceptor {
     private static final Logger logger = Logger.getLogger(ImageTag.class.getName());
     @Override
     public HttpResponse onFail(Exception e, HttpRequestSummary request, Config config) {
-        logger.severe(e.getMessage());
+        logger.warning(request.getHttpMethod() + " " + request.getUrl() + " failed: " + e.getMessage());
         return new FailedResponse(e);
     }
 }
\ No newline at end of file
@@ -1,26 +1,102 @@
 package io.jenkins.plugins.luxair;
 
-import hudson.util.VersionNumber;
+import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
 import io.jenkins.plugins.luxair.model.Ordering;
 import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagLookupResult;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import io.jenkins.plugins.luxair.util.StringUtil;
+import io.jenkins.plugins.luxair.util.TagFilter;
+import io.jenkins.plugins.luxair.util.TagIndex;
+import io.jenkins.plugins.luxair.util.TagListParser;
+import io.jenkins.plugins.luxair.util.VersionKey;
 import kong.unirest.*;
+import jenkins.util.SystemProperties;
+import kong.unirest.json.JSONArray;
 import kong.unirest.json.JSONObject;
 
+import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 
 public class ImageTag {
 
     private static final Logger logger = Logger.getLogger(ImageTag.class.getName());
-    private static final Interceptor errorInterceptor = new ErrorInterceptor();
+    private static final int LOOKUP_THREADS = SystemProperties.getInteger(ImageTag.class.getName() + ".lookupThreads", 8);
+    private static final ExecutorService lookupExecutor = createExecutor(LOOKUP_THREADS, "ImageTag lookup");
+    private static final int MANIFEST_THREADS =
+        SystemProperties.getInteger(ImageTag.class.getName() + ".manifestThreads", 4);
+    private static final ExecutorService manifestExecutor = createExecutor(MANIFEST_THREADS, "ImageTag manifest");
+    private static final String CATALOG_SCOPE = "registry:catalog:*";
+    private static final int CATALOG_PAGE_SIZE = 1000;
+    private static final String MANIFEST_TYPES = String.join(", ",
+        "application/vnd.oci.image.index.v1+json",
+        "application/vnd.docker.distribution.manifest.list.v2+json",
+        "application/vnd.oci.image.manifest.v1+json",
+        "application/vnd.docker.distribution.manifest.v2+json");
+    private static final Pattern LINK_NEXT_PATTERN = Pattern.compile("<([^>]+)>\\s*;[^,]*rel=\"?next\"?");
+    private static final int MAX_INDEXES = SystemProperties.getInteger(ImageTag.class.getName() + ".maxIndexes", 200);
+    // how long an index ordered without some creation times is served before ordering the tags again
+    private static final long INCOMPLETE_INDEX_TTL = TimeUnit.SECONDS.toMillis(
+        SystemProperties.getInteger(ImageTag.class.getName() + ".incompleteIndexSeconds", 10));
+    // how long a lookup waits for creation times, the ones still missing are resolved in the background
+    private static final long CREATED_WAIT = SystemProperties.getInteger(ImageTag.class.getName() + ".createdWaitMillis", 3000);
+
+    // the filtered and ordered tags per repository and parameter settings, rebuilt whenever the tag list changed
+    private static final Map<IndexKey, CachedIndex> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IndexKey, CachedIndex> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+    // the unfiltered tags per repository for membership checks, rebuilt whenever the tag list changed
+    private static final Map<ImageTagCache.Key, Membership> memberships = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ImageTagCache.Key, Membership> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+    // the creation times being resolved, so a tag is not resolved again while a previous lookup still waits for it
+    private static final Map<CreatedKey, CompletableFuture<Void>> resolvingCreated = new ConcurrentHashMap<>();
 
     private ImageTag() {
         throw new IllegalStateException("Utility class");
@@ -28,50 +104,690 @@ public class ImageTag {
 
     public static ResultContainer<List<String>> getTags(String image, String registry, String filter,
                                                         String user, String password, Ordering ordering, boolean verifySsl) {
-        ResultContainer<List<String>> container = new ResultContainer<>(Collections.emptyList());
+        TagFilter tagFilter;
+        try {
+            tagFilter = TagFilter.compile(filter);
+        } catch (PatternSyntaxException e) {
+            ResultContainer<List<String>> container = new ResultContainer<>(Collections.emptyList());
+            container.setErrorMsg("Invalid tag filter pattern: " + e.getDescription());
+            return container;
+        }
+        return getTags(image, registry, tagFilter, user, password, ordering, verifySsl, 0);
+    }
+
+    /**
+     * @param maxTags the maximum number of tags returned, the first ones according to the ordering, 0 for all of them
+     */
+    public static ResultContainer<List<String>> getTags(String image, String registry, TagFilter filter,
+                                                        String user, String password, Ordering ordering, boolean verifySsl,
+                                                        int maxTags) {
+        return getTags(new TagQuery(image, registry, filter, user, password, ordering, verifySsl, maxTags));
+    }
+
+    public static ResultContainer<List<String>> getTags(TagQuery query) {
+        ResultContainer<TagIndex> index = getTagIndex(query);
+        ResultContainer<List<String>> container = new ResultContainer<>(index.getValue().getTags());
+        index.getErrorMsg().ifPresent(container::setErrorMsg);
+        return container;
+    }
+
+    /**
+     * Looks up the tags of an image like {@link #getTags(TagQuery)}, as an index to search and page through.
+     * The index is only rebuilt when the tag list of the repository changed.
+     */
+    public static ResultContainer<TagIndex> getTagIndex(TagQuery query) {
+        ImageTagCache.Key key = getCacheKey(query);
+        return getTagIndex(query, key, getCachedTags(key, query).tags());
+    }
 
-        String[] authService = getAuthService(registry);
-        String token = getAuthToken(authService, image, user, password);
-        ResultContainer<List<VersionNumber>> tags = getImageTagsFromRegistry(image, registry, authService[0], token, verifySsl);
+    /**
+     * Looks up the tags of an image like {@link #getTags(TagQuery)}, along with where they came from and when they
+     * were fetched from the registry.
+     */
+    public static TagLookupResult lookUp(TagQuery query) {
+        ImageTagCache.Key key = getCacheKey(query);
+        ImageTagCache.Lookup lookup = getCachedTags(key, query);
+        ResultContainer<TagIndex> index = getTagIndex(query, key, lookup.tags());
+        return new TagLookupResult(index.getValue().getTags(), index.getErrorMsg().orElse(""), lookup.source(),
+            lookup.fetchedAt());
+    }
 
+    private static ResultContainer<TagIndex> getTagIndex(TagQuery query, ImageTagCache.Key key,
+                                                         ResultContainer<List<String>> tags) {
+        ResultContainer<TagIndex> container = new ResultContainer<>(TagIndex.EMPTY);
         if (tags.getErrorMsg().isPresent()) {
             container.setErrorMsg(tags.getErrorMsg().get());
+            if (tags.getValue().isEmpty()) {
+                return container;
+            }
+            // the registry failed, but the cache still knows the tags of a previous fetch
+        }
+
+        IndexKey indexKey = new IndexKey(key, query.getFilter().getPattern(), query.getOrdering(), query.getMaxTags());
+        CachedIndex cached;
+        synchronized (indexes) {
+            cached = indexes.get(indexKey);
+        }
+        if (cached != null && cached.index().isBuiltFrom(tags.getValue()) && (cached.errorMsg() == null
+            || System.currentTimeMillis() - cached.builtAt() < INCOMPLETE_INDEX_TTL)) {
+            logger.fine(() -> "Reusing the ordered tags of " + key);
+            if (cached.errorMsg() != null) {
+                container.setErrorMsg(cached.errorMsg());
+            }
+            container.setValue(cached.index());
             return container;
         }
 
-        ResultContainer<List<String>> filterTags = filterTags(tags.getValue(), filter, ordering);
+        ResultContainer<List<String>> filterTags = filterTags(tags.getValue(), query);
+        TagIndex index = new TagIndex(tags.getValue(), filterTags.getValue());
         filterTags.getErrorMsg().ifPresent(container::setErrorMsg);
-        container.setValue(filterTags.getValue());
+        // an index missing some creation times is kept as well, but only briefly, until they are resolved
+        synchronized (indexes) {
+            indexes.put(indexKey, new CachedIndex(index, filterTags.getErrorMsg().orElse(null),
+                System.currentTimeMillis()));
+        }
+        container.setValue(index);
+        return container;
+    }
+
+    /**
+     * Looks up the tags of several images concurrently, so the total latency approaches the one of the slowest
+     * registry instead of the sum of all of them.
+     * Challenges and tokens are shared through {@link AuthCache}, each registry is probed at most once per batch.
+     *
+     * @return the result of every query, in iteration order of the given queries
+     */
+    public static Map<TagQuery, ResultContainer<List<String>>> getTags(Collection<TagQuery> queries) {
+        return lookUpAll(queries, ImageTag::getTags, Collections.emptyList());
+    }
+
+    /**
+     * Looks up the tag indexes of several images concurrently, like {@link #getTags(Collection)}.
+     */
+    public static Map<TagQuery, ResultContainer<TagIndex>> getTagIndexes(Collection<TagQuery> queries) {
+        return lookUpAll(queries, ImageTag::getTagIndex, TagIndex.EMPTY);
+    }
+
+    private static <V> Map<TagQuery, ResultContainer<V>> lookUpAll(Collection<TagQuery> queries,
+                                                                   Function<TagQuery, ResultContainer<V>> lookup,
+                                                                   V emptyValue) {
+        Map<String, CompletableFuture<Void>> challenges = new HashMap<>();
+        Map<TagQuery, CompletableFuture<ResultContainer<V>>> futures = new LinkedHashMap<>();
+        for (TagQuery query : queries) {
+            if (futures.containsKey(query)) {
+                continue;
+            }
+            CompletableFuture<Void> challenge = challenges.computeIfAbsent(query.getRegistry(), registry ->
+                AuthCache.getChallenge(registry) != null
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.runAsync(() ->
+                        getAuthService(RegistryClients.get(registry, query.isVerifySsl()), registry), lookupExecutor));
+            futures.put(query, challenge
+                .handle((ignored, e) -> null)
+                .thenApplyAsync(ignored -> lookup.apply(query), lookupExecutor));
+        }
+
+        Map<TagQuery, ResultContainer<V>> results = new LinkedHashMap<>();
+        futures.forEach((query, future) -> {
+            ResultContainer<V> result;
+            try {
+                result = future.join();
+            } catch (CompletionException | CancellationException e) {
+                logger.log(Level.WARNING, "Unable to look up tags for " + query, e);
+                result = new ResultContainer<>(emptyValue);
+                result.setErrorMsg("Unable to look up tags: " + e.getMessage());
+            }
+            results.put(query, result);
+        });
+        return results;
+    }
+
+    private static ExecutorService createExecutor(int threads, String name) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory(new DaemonThreadFactory(), name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Lists the repositories of a registry via {@code /v2/_catalog}, following its pagination. Not every registry
+     * offers the catalog (e.g. Docker Hub does not), some only to certain users.
+     */
+    public static ResultContainer<List<String>> getCatalog(String registry, String user, String password,
+                                                           boolean verifySsl) {
+        ResultContainer<List<String>> container = new ResultContainer<>(Collections.emptyList());
+        long start = System.nanoTime();
+        UnirestInstance client = RegistryClients.get(registry, verifySsl);
+        String[] authService = getAuthService(client, registry);
+        String authorization = authService[0] + " " + getAuthToken(client, authService, CATALOG_SCOPE, user, password);
+
+        List<String> repositories = new ArrayList<>();
+        String url = registry + "/v2/_catalog?n=" + CATALOG_PAGE_SIZE;
+        Set<String> visited = new HashSet<>();
+        while (url != null && visited.add(url)) {
+            List<String> page = new ArrayList<>();
+            ResultContainer<HttpResponse<Boolean>> sent = RegistryRequests.send(registry, RegistryStats.Stage.CATALOG,
+                client.get(url).header("Authorization", authorization),
+                attempt -> attempt.asObject(raw -> raw.getStatus() / 100 == 2 && readList(raw, "repositories", page::add)));
+            if (sent.getErrorMsg().isPresent()) {
+                container.setErrorMsg(sent.getErrorMsg().get());
+                return container;
+            }
+            HttpResponse<Boolean> response = sent.getValue();
+            if (!response.isSuccess() || !Boolean.TRUE.equals(response.getBody())) {
+                String errorMsg = "Unable to list the repositories of " + registry + ", HTTP status: "
+                    + response.getStatus();
+                logger.warning(errorMsg);
+                container.setErrorMsg(errorMsg);
+                return container;
+            }
+            repositories.addAll(page);
+            url = getNextPageUrl(url, response.getHeaders().getFirst("Link"));
+        }
+        logger.fine(() -> "Listed " + repositories.size() + " repositories of " + registry + " in "
+            + millisSince(start) + " ms");
+        container.setValue(repositories);
+        return container;
+    }
+
+    private static ImageTagCache.Key getCacheKey(TagQuery query) {
+        return new ImageTagCache.Key(query.getRegistry(), query.getImage(),
+            credentialFingerprint(query.getUser(), query.getPassword()));
+    }
+
+    /**
+     * @return the unfiltered tags of the repository, from {@link ImageTagCache} or fetched from the registry
+     */
+    private static ImageTagCache.Lookup getCachedTags(ImageTagCache.Key key, TagQuery query) {
+        return ImageTagCache.get().lookUp(key, () -> fetchTags(key, query.getImage(), query.getRegistry(),
+            query.getUser(), query.getPassword(), query.isVerifySsl()));
+    }
+
+    /**
+     * Checks whether an image has the given tag. The unfiltered tags of the repository held by {@link ImageTagCache}
+     * are consulted first, without fetching, refreshing or ordering them. Only a tag missing there (e.g. pushed after
+     * they were fetched, or when no tags are cached) costs a {@code HEAD} request for its manifest, and a tag the
+     * registry does not know is remembered as missing for {@code ManifestCache.absentTtlSeconds}.
+     *
+     * @return whether the tag exists, with an error if the manifest could not be fetched
+     */
+    public static ResultContainer<Boolean> hasTag(TagQuery query, String tag) {
+        ResultContainer<Boolean> container = new ResultContainer<>(false);
+        ImageTagCache.Key key = getCacheKey(query);
+        List<String> tags = ImageTagCache.get().peek(key);
+        if (tags != null && getMembership(key, tags).contains(tag)) {
+            container.setValue(true);
+            return container;
+        }
+        if (ManifestCache.isAbsent(key, tag)) {
+            return container;
+        }
+        ResultContainer<Map<String, ManifestCache.Manifest>> manifests = getManifests(query, List.of(tag));
+        container.setValue(manifests.getValue().containsKey(tag));
+        manifests.getErrorMsg().ifPresent(container::setErrorMsg);
+        return container;
+    }
+
+    private static Set<String> getMembership(ImageTagCache.Key key, List<String> tags) {
+        synchronized (memberships) {
+            Membership membership = memberships.get(key);
+            if (membership == null || membership.source() != tags) {
+                membership = new Membership(tags, new HashSet<>(tags));
+                memberships.put(key, membership);
+            }
+            return membership.tags();
+        }
+    }
+
+    /**
+     * Resolves the manifests of the tags of several images concurrently, like {@link #getManifests(TagQuery, List)},
+     * so the total latency approaches the one of the slowest registry instead of the sum of all of them.
+     *
+     * @return the manifests of every query, in iteration order of the given map
+     */
+    public static Map<TagQuery, ResultContainer<Map<String, ManifestCache.Manifest>>> getManifests(
+        Map<TagQuery, List<String>> tags) {
+        Map<TagQuery, CompletableFuture<ResultContainer<Map<String, ManifestCache.Manifest>>>> futures =
+            new LinkedHashMap<>();
+        tags.forEach((query, queryTags) -> futures.put(query,
+            CompletableFuture.supplyAsync(() -> getManifests(query, queryTags), lookupExecutor)));
+
+        Map<TagQuery, ResultContainer<Map<String, ManifestCache.Manifest>>> results = new LinkedHashMap<>();
+        futures.forEach((query, future) -> {
+            ResultContainer<Map<String, ManifestCache.Manifest>> result;
+            try {
+                result = future.join();
+            } catch (CompletionException | CancellationException e) {
+                logger.log(Level.WARNING, "Unable to resolve manifests for " + query, e);
+                result = new ResultContainer<>(Collections.emptyMap());
+                result.setErrorMsg("Unable to resolve manifests: " + e.getMessage());
+            }
+            results.put(query, result);
+        });
+        return results;
+    }
+
+    /**
+     * Resolves the manifests the given tags of an image point to, with {@code HEAD} requests sent at most
+     * {@code manifestThreads} at a time over the pooled connections of the registry. Recently resolved tags are
+     * answered from {@link ManifestCache}.
+     *
+     * @return the manifest per tag, tags that do not exist are missing, tags that could not be resolved are missing
+     * and reported as error
+     */
+    public static ResultContainer<Map<String, ManifestCache.Manifest>> getManifests(TagQuery query, List<String> tags) {
+        ResultContainer<Map<String, ManifestCache.Manifest>> container = new ResultContainer<>(new LinkedHashMap<>());
+        String image = query.getImage();
+        String registry = query.getRegistry();
+        String user = query.getUser();
+        String password = query.getPassword();
+        ImageTagCache.Key key = new ImageTagCache.Key(registry, image, credentialFingerprint(user, password));
+
+        List<String> missing = new ArrayList<>();
+        for (String tag : tags) {
+            ManifestCache.Manifest manifest = ManifestCache.get(key, tag);
+            if (manifest != null) {
+                container.getValue().put(tag, manifest);
+            } else {
+                missing.add(tag);
+            }
+        }
+        if (missing.isEmpty()) {
+            return container;
+        }
+
+        long start = System.nanoTime();
+        UnirestInstance client = RegistryClients.get(registry, query.isVerifySsl());
+        String[] authService = getAuthService(client, registry);
+        String token = getAuthToken(client, authService, pullScope(image), user, password);
+        Map<String, HttpResponse<Empty>> responses = fetchManifests(client, registry, image, authService[0], token,
+            missing, container);
+        List<String> rejected = responses.entrySet().stream()
+            .filter(entry -> entry.getValue().getStatus() == 401)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        if (!rejected.isEmpty()) {
+            // the cached challenge or token is outdated, probe the registry again and retry those tags once
+            logger.info("Authorization rejected, probing " + registry + " again");
+            AuthCache.invalidate(registry, getTokenKey(authService, pullScope(image), user, password));
+            authService = getAuthService(client, registry);
+            token = getAuthToken(client, authService, pullScope(image), user, password);
+            responses.putAll(fetchManifests(client, registry, image, authService[0], token, rejected, container));
+        }
+
+        responses.forEach((tag, response) -> {
+            if (response.getStatus() == 404) {
+                logger.fine(() -> "No manifest found for " + image + ":" + tag);
+                ManifestCache.putAbsent(key, tag);
+                return;
+            }
+            String digest = response.getHeaders().getFirst("Docker-Content-Digest");
+            if (!response.isSuccess() || digest.isEmpty()) {
+                String errorMsg = "Unable to resolve the digest of " + image + ":" + tag + ", HTTP status: "
+                    + response.getStatusText();
+                logger.warning(errorMsg);
+                container.setErrorMsg(errorMsg);
+                return;
+            }
+            String contentLength = response.getHeaders().getFirst("Content-Length");
+            ManifestCache.Manifest manifest = new ManifestCache.Manifest(digest,
+                response.getHeaders().getFirst("Content-Type"),
+                contentLength.matches("\\d+") ? Long.parseLong(contentLength) : -1);
+            ManifestCache.put(key, tag, manifest);
+            container.getValue().put(tag, manifest);
+        });
+        logger.fine(() -> "Resolved " + missing.size() + " manifests of " + image + " in " + millisSince(start) + " ms");
         return container;
     }
 
-    private static ResultContainer<List<String>> filterTags(List<VersionNumber> tags, String filter, Ordering ordering) {
+    /**
+     * Resolves when the images of the given tags were created, from the {@code created} timestamp of their config.
+     * The timestamp of a manifest never changes and is cached for good, the digest of a tag is trusted for
+     * {@code ManifestCache.tagCreatedTtlMinutes}, so after the first lookup only new tags cost requests.
+     * <p>
+     * A lookup waits at most {@code createdWaitMillis} for them, so the first one of a large repository does not
+     * block the build form until every tag is resolved. The remaining ones are resolved in the background and picked
+     * up by a later lookup. Tags that could not be resolved are not retried during
+     * {@code ManifestCache.createdFailureTtlMinutes}.
+     *
+     * @return the creation time in epoch millis per tag, tags that are not resolved (yet) are missing
+     */
+    private static Map<String, Long> getCreated(TagQuery query, List<String> tags) {
+        Map<String, Long> created = new HashMap<>();
+        String image = query.getImage();
+        String registry = query.getRegistry();
+        String user = query.getUser();
+        String password = query.getPassword();
+        ImageTagCache.Key key = new ImageTagCache.Key(registry, image, credentialFingerprint(user, password));
+
+        List<String> missing = new ArrayList<>();
+        for (String tag : tags) {
+            Long createdAt = ManifestCache.getCreated(key, tag);
+            if (createdAt != null) {
+                created.put(tag, createdAt);
+            } else if (!ManifestCache.isCreatedFailed(key, tag)) {
+                missing.add(tag);
+            }
+        }
+        if (missing.isEmpty()) {
+            return created;
+        }
+
+        long start = System.nanoTime();
+        UnirestInstance client = RegistryClients.get(registry, query.isVerifySsl());
+        String[] authService = getAuthService(client, registry);
+        String authorization = authService[0] + " " + getAuthToken(client, authService, pullScope(image), user, password);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(missing.size());
+        for (String tag : missing) {
+            futures.add(resolveCreated(client, key, authorization, tag));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(CREATED_WAIT, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.fine(() -> "Resolving the creation time of the tags of " + image + " in the background");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // failures are handled per tag
+        }
+
+        for (String tag : missing) {
+            Long createdAt = ManifestCache.getCreated(key, tag);
+            if (createdAt != null) {
+                created.put(tag, createdAt);
+            }
+        }
+        logger.fine(() -> "Resolved the creation time of " + missing.size() + " tags of " + image + " in "
+            + millisSince(start) + " ms");
+        return created;
+    }
+
+    /**
+     * Resolves the creation time of a tag into {@link ManifestCache}, unless that is already in progress.
+     */
+    private static CompletableFuture<Void> resolveCreated(UnirestInstance client, ImageTagCache.Key key,
+                                                          String authorization, String tag) {
+        CreatedKey createdKey = new CreatedKey(key, tag);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> running = resolvingCreated.putIfAbsent(createdKey, future);
+        if (running != null) {
+            return running;
+        }
+        String image = key.image();
+        manifestExecutor.execute(() -> {
+            try {
+                Optional<Created> createdAt = fetchCreated(client, key.registry(), image, authorization, tag);
+                if (createdAt.isPresent()) {
+                    ManifestCache.putCreated(key, tag, createdAt.get().digest(), createdAt.get().created());
+                } else {
+                    ManifestCache.putCreatedFailure(key, tag);
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Unable to resolve the creation time of " + image + ":" + tag, e);
+                ManifestCache.putCreatedFailure(key, tag);
+            } finally {
+                resolvingCreated.remove(createdKey, future);
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Reads the manifest of a tag, the platform manifest of an index (preferring linux/amd64) and the config blob
+     * it references, unless the creation time of the manifest is already known.
+     */
+    private static Optional<Created> fetchCreated(UnirestInstance client, String registry, String image,
+                                                  String authorization, String tag) {
+        HttpResponse<JsonNode> response = fetchJson(client, registry, image, authorization, "manifests/" + tag);
+        if (response == null) {
+            return Optional.empty();
+        }
+        String digest = response.getHeaders().getFirst("Docker-Content-Digest");
+        Long known = digest.isEmpty() ? null : ManifestCache.getCreated(digest);
+        if (known != null) {
+            return Optional.of(new Created(digest, known));
+        }
+
+        JSONObject manifest = response.getBody().getObject();
+        if (manifest.has("manifests")) {
+            String platformDigest = getPlatformDigest(manifest.getJSONArray("manifests"));
+            if (platformDigest == null) {
+                logger.fine(() -> "No image manifest found in the index of " + image + ":" + tag);
+                return Optional.empty();
+            }
+            response = fetchJson(client, registry, image, authorization, "manifests/" + platformDigest);
+            if (response == null) {
+                return Optional.empty();
+            }
+            manifest = response.getBody().getObject();
+        }
+        JSONObject config = manifest.optJSONObject("config");
+        if (config == null || config.optString("digest", "").isEmpty()) {
+            logger.fine(() -> "No image config referenced by the manifest of " + image + ":" + tag);
+            return Optional.empty();
+        }
+
+        response = fetchJson(client, registry, image, authorization, "blobs/" + config.getString("digest"));
+        if (response == null) {
+            return Optional.empty();
+        }
+        String createdAt = response.getBody().getObject().optString("created", "");
+        try {
+            return Optional.of(new Created(digest.isEmpty() ? config.getString("digest") : digest,
+                OffsetDateTime.parse(createdAt).toInstant().toEpochMilli()));
+        } catch (DateTimeParseException e) {
+            logger.fine(() -> "Ignoring unparsable creation time of " + image + ":" + tag + ": " + createdAt);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the digest of the linux/amd64 manifest of an index, or of the first one not being an attestation
+     */
+    private static String getPlatformDigest(JSONArray manifests) {
+        String first = null;
+        for (int i = 0; i < manifests.length(); i++) {
+            JSONObject entry = manifests.getJSONObject(i);
+            JSONObject platform = entry.optJSONObject("platform");
+            String os = platform != null ? platform.optString("os", "") : "";
+            if (os.equals("unknown")) {
+                continue;
+            }
+            if (os.equals("linux") && platform.optString("architecture", "").equals("amd64")) {
+                return entry.optString("digest", null);
+            }
+            if (first == null) {
+                first = entry.optString("digest", null);
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @return the successful response to a {@code GET} of the given path below the image, {@code null} otherwise
+     */
+    private static HttpResponse<JsonNode> fetchJson(UnirestInstance client, String registry, String image,
+                                                    String authorization, String path) {
+        String url = registry + "/v2/" + image + "/" + path;
+        ResultContainer<HttpResponse<JsonNode>> sent = RegistryRequests.send(registry, RegistryStats.Stage.MANIFEST,
+            client.get(url)
+                .header("Authorization", authorization)
+                .header("Accept", MANIFEST_TYPES + ", application/json"),
+            GetRequest::asJson);
+        if (sent.getErrorMsg().isPresent()) {
+            return null;
+        }
+        HttpResponse<JsonNode> response = sent.getValue();
+        if (!response.isSuccess() || response.getBody() == null || response.getBody().isArray()) {
+            logger.fine(() -> "Unable to read " + url + ", HTTP status: " + response.getStatusText());
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Sends the {@code HEAD} requests for the manifests of the given tags concurrently.
+     *
+     * @param container receives the error of requests that were not sent
+     * @return the response per tag, tags whose request was not sent are missing
+     */
+    private static Map<String, HttpResponse<Empty>> fetchManifests(UnirestInstance client, String registry,
+                                                                   String image, String authType, String token,
+                                                                   List<String> tags, ResultContainer<?> container) {
+        Map<String, CompletableFuture<ResultContainer<HttpResponse<Empty>>>> futures = new LinkedHashMap<>();
+        for (String tag : tags) {
+            GetRequest request = client.head(registry + "/v2/" + image + "/manifests/" + tag)
+                .header("Authorization", authType + " " + token)
+                .header("Accept", MANIFEST_TYPES);
+            futures.put(tag, CompletableFuture.supplyAsync(() ->
+                RegistryRequests.send(registry, RegistryStats.Stage.MANIFEST, request, GetRequest::asEmpty),
+                manifestExecutor));
+        }
+
+        Map<String, HttpResponse<Empty>> responses = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<ResultContainer<HttpResponse<Empty>>>> entry : futures.entrySet()) {
+            try {
+                ResultContainer<HttpResponse<Empty>> sent = entry.getValue().join();
+                if (sent.getErrorMsg().isPresent()) {
+                    container.setErrorMsg(sent.getErrorMsg().get());
+                } else {
+                    responses.put(entry.getKey(), sent.getValue());
+                }
+            } catch (CompletionException | CancellationException e) {
+                logger.log(Level.WARNING, "Unable to resolve the manifest of " + image + ":" + entry.getKey(), e);
+                container.setErrorMsg("Unable to resolve the manifest of " + image + ":" + entry.getKey());
+            }
+        }
+        return responses;
+    }
+
+    private static ResultContainer<List<String>> fetchTags(ImageTagCache.Key key, String image, String registry,
+                                                           String user, String password, boolean verifySsl) {
+        long start = System.nanoTime();
+        UnirestInstance client = RegistryClients.get(registry, verifySsl);
+        String[] authService = getAuthService(client, registry);
+        ResultContainer<List<String>> tags =
+            getImageTagsFromRegistry(client, key, image, registry, authService, user, password);
+        logger.fine(() -> "Fetched " + tags.getValue().size() + " tags of " + image + " in " + millisSince(start) + " ms");
+        if (tags.getErrorMsg().isEmpty()) {
+            RegistryStats.get().recordTagCount(registry, image, tags.getValue().size());
+        }
+        return tags;
+    }
+
+    /**
+     * Identifies the credential used for a lookup without keeping the secret itself around.
+     */
+    static String credentialFingerprint(String user, String password) {
+        if (user.isEmpty() && password.isEmpty()) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(user.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return Util.toHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static ResultContainer<List<String>> filterTags(List<String> tags, TagQuery query) {
         ResultContainer<List<String>> container = new ResultContainer<>(Collections.emptyList());
+        TagFilter filter = query.getFilter();
+        Ordering ordering = query.getOrdering();
+        int maxTags = query.getMaxTags();
         logger.info("Ordering Tags according to: " + ordering);
 
-        if (ordering == Ordering.DSC_VERSION || ordering == Ordering.ASC_VERSION) {
+        // filter the raw strings first, only the remaining tags need to be parsed into versions
+        long start = System.nanoTime();
+        List<String> filtered = tags.stream()
+            .filter(filter)
+            .collect(Collectors.toList());
+        RegistryStats.get().recordStage(RegistryStats.Stage.FILTER, start);
+        logger.fine(() -> "Filtered " + tags.size() + " tags down to " + filtered.size() + " with '" + filter + "' in "
+            + millisSince(start) + " ms");
+        Map<String, Long> created = ordering == Ordering.DSC_CREATED ? getCreated(query, filtered) : Map.of();
+        long sortStart = System.nanoTime();
+
+        if (ordering == Ordering.DSC_CREATED) {
+            // newest first, tags of unknown age last
+            Comparator<String> newestFirst = Comparator
+                .<String>comparingLong(tag -> created.getOrDefault(tag, Long.MIN_VALUE))
+                .reversed()
+                .thenComparing(Collections.reverseOrder());
+            container.setValue(sortTopN(filtered, newestFirst, maxTags));
+            if (created.size() < filtered.size()) {
+                container.setErrorMsg("Unable to determine when " + (filtered.size() - created.size())
+                    + " tags were pushed, they are listed last");
+            }
+        } else if (ordering == Ordering.DSC_VERSION || ordering == Ordering.ASC_VERSION) {
             try {
-                container.setValue(tags.stream()
-                   .filter(tag -> tag.toString().matches(filter))
-                   .sorted(ordering == Ordering.ASC_VERSION ? VersionNumber::compareTo : VersionNumber.DESCENDING)
-                   .map(VersionNumber::toString)
-                   .collect(Collectors.toList()));
+                // each tag is parsed once, plain numeric versions are then compared without VersionNumber
+                List<VersionKey> versions = filtered.stream()
+                    .map(VersionKey::new)
+                    .collect(Collectors.toList());
+                container.setValue(sortTopN(versions,
+                    ordering == Ordering.ASC_VERSION ? Comparator.naturalOrder() : Comparator.reverseOrder(), maxTags)
+                    .stream()
+                    .map(VersionKey::getTag)
+                    .collect(Collectors.toList()));
             } catch (Exception ignore) {
                 logger.warning("Unable to cast ImageTags to versions! Versioned Ordering is not supported for this images tags.");
                 container.setErrorMsg("Unable to cast ImageTags to versions! Versioned Ordering is not supported for this images tags.");
             }
         } else {
-            container.setValue(tags.stream()
-               .map(VersionNumber::toString)
-               .filter(tag -> tag.matches(filter))
-               .sorted(ordering == Ordering.NATURAL ? Collections.reverseOrder() : String::compareTo)
-               .collect(Collectors.toList()));
+            container.setValue(sortTopN(filtered,
+                ordering == Ordering.NATURAL ? Collections.reverseOrder() : String::compareTo, maxTags));
         }
+        RegistryStats.get().recordStage(RegistryStats.Stage.SORT, sortStart);
+        logger.fine(() -> "Ordered " + filtered.size() + " tags by " + ordering.name() + " in "
+            + millisSince(sortStart) + " ms");
 
         return container;
     }
 
-    private static String[] getAuthService(String registry) {
+    private static long millisSince(long nanoTime) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanoTime);
+    }
+
+    /**
+     * Sorts the given items, or only selects and sorts the first {@code limit} of them using a bounded heap.
+     * Either way, equal items keep their relative order, so the result is the start of a full (stable) sort.
+     *
+     * @param limit the number of items to return, 0 for all of them
+     */
+    static <T> List<T> sortTopN(List<T> items, Comparator<? super T> comparator, int limit) {
+        if (limit <= 0 || limit >= items.size()) {
+            List<T> sorted = new ArrayList<>(items);
+            sorted.sort(comparator);
+            return sorted;
+        }
+
+        // the heap holds positions, ties are broken by them so an earlier item beats an equal later one
+        List<T> list = items instanceof RandomAccess ? items : new ArrayList<>(items);
+        Comparator<Integer> byItem = Comparator.<Integer, T>comparing(list::get, comparator)
+            .thenComparingInt(position -> position);
+        // the head of the heap is the worst of the best items seen so far
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, byItem.reversed());
+        for (int position = 0; position < list.size(); position++) {
+            if (heap.size() < limit) {
+                heap.add(position);
+            } else if (byItem.compare(position, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(position);
+            }
+        }
+        List<Integer> positions = new ArrayList<>(heap);
+        positions.sort(byItem);
+        List<T> sorted = new ArrayList<>(limit);
+        positions.forEach(position -> sorted.add(list.get(position)));
+        return sorted;
+    }
+
+    private static String[] getAuthService(UnirestInstance client, String registry) {
 
         String[] rtn = new String[3];
         rtn[0] = ""; // type
@@ -79,11 +795,35 @@ public class ImageTag {
         rtn[2] = ""; // service
         String url = registry + "/v2/";
 
-        Unirest.config().reset();
-        Unirest.config().enableCookieManagement(false).interceptor(errorInterceptor);
-        String headerValue = Unirest.get(url).asEmpty()
-            .getHeaders().getFirst("Www-Authenticate");
-        Unirest.shutDown();
+        String[] cached = AuthCache.getChallenge(registry);
+        if (cached != null) {
+            logger.fine("AuthService: using cached challenge of " + registry);
+            return cached;
+        }
+
+        ResultContainer<HttpResponse<Empty>> sent =
+            RegistryRequests.send(registry, RegistryStats.Stage.CHALLENGE, client.get(url), GetRequest::asEmpty);
+        if (sent.getErrorMsg().isPresent()) {
+            return rtn;
+        }
+        HttpResponse<Empty> response = sent.getValue();
+        String headerValue = response.getHeaders().getFirst("Www-Authenticate");
+
+        // only a challenge or an anonymous success describe the registry, not a rate limit, outage or proxy error page
+        if (response.getStatus() == 401) {
+            parseAuthService(url, headerValue, rtn);
+            if (!rtn[0].isEmpty()) {
+                AuthCache.putChallenge(registry, rtn);
+            }
+        } else if (response.isSuccess()) {
+            AuthCache.putChallenge(registry, rtn);
+        } else {
+            logger.warning("No challenge received from " + url + ", HTTP status: " + response.getStatus());
+        }
+        return rtn;
+    }
+
+    private static void parseAuthService(String url, String headerValue, String[] rtn) {
 
         String type = "";
 
@@ -97,7 +837,7 @@ public class ImageTag {
             rtn[0] = "Basic";
             logger.info("AuthService: type=Basic");
 
-            return rtn;
+            return;
         }
 
         if (type.equalsIgnoreCase("Bearer")) {
@@ -112,16 +852,15 @@ public class ImageTag {
                 logger.warning("No AuthService available from " + url);
             }
 
-            return rtn;
+            return;
         }
 
         // Ops!
         logger.warning("Unknown authorization type " + type);
-
-        return rtn;
     }
 
-    private static String getAuthToken(String[] authService, String image, String user, String password) {
+    private static String getAuthToken(UnirestInstance client, String[] authService, String scope,
+                                       String user, String password) {
 
         String type = authService[0];
         String token = "";
@@ -139,20 +878,32 @@ public class ImageTag {
 
         String realm = authService[1];
         String service = authService[2];
+        if (realm.isEmpty()) {
+            // an anonymous registry, or one that could not be probed
+            return token;
+        }
 
-        Unirest.config().reset();
-        Unirest.config().enableCookieManagement(false).interceptor(errorInterceptor);
-        GetRequest request = Unirest.get(realm);
+        AuthCache.TokenKey key = getTokenKey(authService, scope, user, password);
+        String cached = AuthCache.getToken(key);
+        if (cached != null) {
+            logger.fine("Using cached token");
+            return cached;
+        }
+
+        GetRequest request = client.get(realm);
         if (!user.isEmpty() && !password.isEmpty()) {
             logger.info("Basic authentication");
             request = request.basicAuth(user, password);
         } else {
             logger.info("No basic authentication");
         }
-        HttpResponse<JsonNode> response = request
+        ResultContainer<HttpResponse<JsonNode>> sent = RegistryRequests.send(realm, RegistryStats.Stage.TOKEN, request
             .queryString("service", service)
-            .queryString("scope", "repository:" + image + ":pull")
-            .asJson();
+            .queryString("scope", key.scope()), GetRequest::asJson);
+        if (sent.getErrorMsg().isPresent()) {
+            return token;
+        }
+        HttpResponse<JsonNode> response = sent.getValue();
         if (response.isSuccess()) {
             JSONObject jsonObject = response.getBody().getObject();
             if (jsonObject.has("token")) {
@@ -163,36 +914,200 @@ public class ImageTag {
                 logger.warning("Token not received");
             }
             logger.info("Token received");
+            if (!token.isEmpty()) {
+                AuthCache.putToken(key, token, getIssuedAt(jsonObject), jsonObject.optInt("expires_in", 0));
+            }
         } else {
             logger.warning("Token not received");
         }
-        Unirest.shutDown();
 
         return token;
     }
 
-    private static ResultContainer<List<VersionNumber>> getImageTagsFromRegistry(String image, String registry,
-                                                                                 String authType, String token, boolean verifySsl) {
-        ResultContainer<List<VersionNumber>> resultContainer = new ResultContainer<>(new ArrayList<>());
+    private static AuthCache.TokenKey getTokenKey(String[] authService, String scope, String user, String password) {
+        return new AuthCache.TokenKey(authService[1], authService[2], scope, credentialFingerprint(user, password));
+    }
+
+    private static String pullScope(String image) {
+        return "repository:" + image + ":pull";
+    }
+
+    private static long getIssuedAt(JSONObject jsonObject) {
+        String issuedAt = jsonObject.optString("issued_at", "");
+        if (!issuedAt.isEmpty()) {
+            try {
+                return OffsetDateTime.parse(issuedAt).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                logger.fine("Ignoring unparsable issued_at: " + issuedAt);
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    private static ResultContainer<List<String>> getImageTagsFromRegistry(UnirestInstance client, ImageTagCache.Key key,
+                                                                          String image, String registry,
+                                                                          String[] authService, String user, String password) {
+        ResultContainer<List<String>> resultContainer = new ResultContainer<>(new ArrayList<>());
+        String authType = authService[0];
+        String token = getAuthToken(client, authService, pullScope(image), user, password);
+        boolean renewedAuthorization = false;
+        List<String> tags = resultContainer.getValue();
         String url = registry + "/v2/" + image + "/tags/list";
+        int pageSize = getTagPageSize();
+        if (pageSize > 0) {
+            url += "?n=" + pageSize;
+        }
 
-        Unirest.config().reset();
-        Unirest.config().enableCookieManagement(false).interceptor(errorInterceptor);
-        Unirest.config().verifySsl(verifySsl);
-        HttpResponse<JsonNode> response = Unirest.get(url)
-            .header("Authorization", authType + " " + token)
-            .asJson();
-        if (response.isSuccess()) {
+        TagPageCache.Snapshot previous = TagPageCache.get(key);
+        List<TagPageCache.Page> pages = new ArrayList<>();
+        boolean modified = false;
+        Set<String> visited = new HashSet<>();
+        while (url != null && visited.add(url)) {
+            TagPageCache.Page previousPage = previous.findPage(url);
+            GetRequest request = client.get(url)
+                .header("Authorization", authType + " " + token);
+            if (previousPage != null && !previousPage.etag().isEmpty()) {
+                request = request.header("If-None-Match", previousPage.etag());
+            }
+            if (previousPage != null && !previousPage.lastModified().isEmpty()) {
+                request = request.header("If-Modified-Since", previousPage.lastModified());
+            }
+            List<String> pageTags = new ArrayList<>();
+            ResultContainer<HttpResponse<Boolean>> sent = RegistryRequests.send(registry, RegistryStats.Stage.TAG_LIST,
+                request, attempt -> attempt.asObject(raw -> raw.getStatus() / 100 == 2 && readTags(raw, pageTags::add)));
+            if (sent.getErrorMsg().isPresent()) {
+                resultContainer.setErrorMsg(sent.getErrorMsg().get());
+                break;
+            }
+            HttpResponse<Boolean> response = sent.getValue();
+            String retryAfter = response.getHeaders().getFirst("Retry-After");
+            if (response.getStatus() == 401 && !renewedAuthorization) {
+                // the cached challenge or token is outdated, probe the registry again and retry this page once
+                logger.info("Authorization rejected, probing " + registry + " again");
+                AuthCache.invalidate(registry, getTokenKey(authService, pullScope(image), user, password));
+                authService = getAuthService(client, registry);
+                authType = authService[0];
+                token = getAuthToken(client, authService, pullScope(image), user, password);
+                renewedAuthorization = true;
+                visited.remove(url);
+                continue;
+            }
+            if (response.getStatus() == 304 && previousPage != null) {
+                logger.fine("HTTP status: Not Modified, reusing " + previousPage.tags().size() + " tags of " + url);
+                pages.add(previousPage);
+                tags.addAll(previousPage.tags());
+                url = previousPage.nextUrl();
+                continue;
+            }
+            if (!response.isSuccess()) {
+                String errorMsg = "HTTP status: " + response.getStatusText();
+                if (!retryAfter.isEmpty()) {
+                    errorMsg += ", retry after " + retryAfter;
+                }
+                logger.warning(errorMsg);
+                resultContainer.setErrorMsg(errorMsg);
+                break;
+            }
             logger.info("HTTP status: " + response.getStatusText());
-            response.getBody().getObject()
-                .getJSONArray("tags")
-                .forEach(item -> resultContainer.getValue().add(new VersionNumber(item.toString())));
-        } else {
-            logger.warning("HTTP status: " + response.getStatusText());
-            resultContainer.setErrorMsg("HTTP status: " + response.getStatusText());
+            if (!Boolean.TRUE.equals(response.getBody())) {
+                resultContainer.setErrorMsg("Unable to parse the tag list received from " + url);
+                break;
+            }
+            modified = true;
+            Headers headers = response.getHeaders();
+            String nextUrl = getNextPageUrl(url, headers.getFirst("Link"));
+            pages.add(new TagPageCache.Page(url, getEntityTag(headers), headers.getFirst("Last-Modified"),
+                Collections.unmodifiableList(pageTags), nextUrl));
+            tags.addAll(pageTags);
+            url = nextUrl;
         }
-        Unirest.shutDown();
+        logger.fine(() -> "Received " + tags.size() + " tags for " + image + " in " + visited.size() + " page(s)");
 
+        if (resultContainer.getErrorMsg().isEmpty()) {
+            if (!modified && pages.size() == previous.pages().size()) {
+                // nothing changed, hand out the very same list again
+                resultContainer.setValue(previous.tags());
+            } else {
+                resultContainer.setValue(Collections.unmodifiableList(tags));
+                if (pages.stream().anyMatch(TagPageCache.Page::hasValidator)) {
+                    TagPageCache.put(key, new TagPageCache.Snapshot(pages, resultContainer.getValue()));
+                }
+            }
+        }
         return resultContainer;
     }
+
+    /**
+     * The validator to revalidate a page with, falling back to the content digest when the registry sends no ETag.
+     */
+    private static String getEntityTag(Headers headers) {
+        String etag = headers.getFirst("ETag");
+        if (etag.isEmpty() && !headers.getFirst("Docker-Content-Digest").isEmpty()) {
+            etag = "\"" + headers.getFirst("Docker-Content-Digest") + "\"";
+        }
+        return etag;
+    }
+
+    private static boolean readTags(RawResponse raw, Consumer<String> consumer) {
+        return readList(raw, "tags", consumer);
+    }
+
+    private static boolean readList(RawResponse raw, String field, Consumer<String> consumer) {
+        try {
+            long start = System.nanoTime();
+            TagListParser.parse(raw.getContent(), field, consumer);
+            RegistryStats.get().recordStage(RegistryStats.Stage.PARSE, start);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Unable to parse " + field + " list: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Resolves the {@code rel="next"} target of a {@code Link} header against the page it was received with.
+     *
+     * @return the url of the next page or {@code null} if this was the last one
+     */
+    static String getNextPageUrl(String url, String linkHeader) {
+        if (!StringUtil.isNotNullOrEmpty(linkHeader)) {
+            return null;
+        }
+        Matcher m = LINK_NEXT_PATTERN.matcher(linkHeader);
+        if (!m.find()) {
+            return null;
+        }
+        try {
+            return URI.create(url).resolve(m.group(1)).toString();
+        } catch (IllegalArgumentException e) {
+            logger.warning("Ignoring malformed Link header: " + linkHeader);
+            return null;
+        }
+    }
+
+    private static int getTagPageSize() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? config.getTagPageSize() : 0;
+    }
+
+    private record IndexKey(ImageTagCache.Key key, String filter, Ordering ordering, int maxTags) {
+    }
+
+    /**
+     * @param errorMsg why the index may be incomplete, e.g. creation times still being resolved, {@code null} if not
+     */
+    private record CachedIndex(TagIndex index, String errorMsg, long builtAt) {
+    }
+
+    /**
+     * @param source the tag list the set was built from, which is handed out again while unchanged
+     */
+    private record Membership(List<String> source, Set<String> tags) {
+    }
+
+    private record CreatedKey(ImageTagCache.Key key, String tag) {
+    }
+
+    private record Created(String digest, long created) {
+    }
 }
@@ -0,0 +1,285 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagLookupResult;
+import jenkins.util.SystemProperties;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded, TTL based cache of the tag lists fetched from the registries.
+ * <p>
+ * Entries younger than the configured TTL are served as is. Older entries are still served (stale-while-revalidate)
+ * while a single background refresh fetches the current list, so a page render only waits for the registry on a
+ * cold or long expired entry.
+ * <p>
+ * Concurrent loads of the same repository are coalesced into a single registry fetch whose result all callers share.
+ * <p>
+ * Every successfully fetched list is also kept by {@link TagSnapshotStore}, which seeds the cache after a restart and
+ * is served, marked with the time it was fetched, while a registry cannot be reached.
+ */
+public final class ImageTagCache {
+
+    private static final Logger logger = Logger.getLogger(ImageTagCache.class.getName());
+    private static final int MAX_ENTRIES = SystemProperties.getInteger(ImageTagCache.class.getName() + ".maxEntries", 500);
+    private static final int MAX_STALE_FACTOR = 10;
+    // how long an unchanged tag list is not stored again, so its snapshot is neither rewritten every TTL nor pruned
+    private static final long SNAPSHOT_INTERVAL = TimeUnit.MINUTES.toMillis(
+        SystemProperties.getInteger(ImageTagCache.class.getName() + ".snapshotIntervalMinutes", 60));
+    private static final ImageTagCache INSTANCE = new ImageTagCache();
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<Key, CompletableFuture<ResultContainer<List<String>>>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher;
+
+    private ImageTagCache() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(100),
+            new NamedThreadFactory(new DaemonThreadFactory(), "ImageTagCache refresh"));
+        executor.allowCoreThreadTimeOut(true);
+        this.refresher = executor;
+    }
+
+    public static ImageTagCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached tags of the given repository, loading them with the given loader when missing or expired.
+     * Failed loads are never cached, but answered with the last known tags if there are any.
+     */
+    public ResultContainer<List<String>> get(Key key, Supplier<ResultContainer<List<String>>> loader) {
+        return lookUp(key, loader).tags();
+    }
+
+    /**
+     * Returns the tags of the given repository like {@link #get}, along with where they came from and when they were
+     * fetched.
+     */
+    public Lookup lookUp(Key key, Supplier<ResultContainer<List<String>>> loader) {
+        long ttl = getTtlMillis();
+        if (ttl <= 0) {
+            return fetched(load(key, loader, false));
+        }
+
+        Entry entry = getEntry(key);
+        if (entry == null) {
+            entry = restore(key);
+        }
+        if (entry != null) {
+            long age = System.currentTimeMillis() - entry.fetchedAt;
+            if (age < ttl) {
+                logger.fine(() -> "Serving tags of " + key + " from cache");
+                RegistryStats.get().recordCacheHit(false);
+                return new Lookup(new ResultContainer<>(entry.value), TagLookupResult.Source.CACHE, entry.fetchedAt);
+            }
+            if (age < ttl * MAX_STALE_FACTOR) {
+                logger.fine(() -> "Serving stale tags of " + key + " from cache, refreshing in background");
+                RegistryStats.get().recordCacheHit(true);
+                scheduleRefresh(key, entry, loader);
+                return new Lookup(new ResultContainer<>(entry.value), TagLookupResult.Source.STALE_CACHE,
+                    entry.fetchedAt);
+            }
+        }
+
+        RegistryStats.get().recordCacheMiss();
+        ResultContainer<List<String>> result = load(key, loader, true);
+        if (result.getErrorMsg().isPresent() && entry != null) {
+            String fetchedAt = DateTimeFormatter.ISO_INSTANT.format(
+                Instant.ofEpochMilli(entry.fetchedAt).truncatedTo(ChronoUnit.SECONDS));
+            logger.fine(() -> "Unable to fetch tags of " + key + ", serving the ones fetched at " + fetchedAt);
+            ResultContainer<List<String>> fallback = new ResultContainer<>(entry.value);
+            fallback.setErrorMsg(result.getErrorMsg().get() + " (showing tags cached as of " + fetchedAt + ")");
+            return new Lookup(fallback, TagLookupResult.Source.FALLBACK, entry.fetchedAt);
+        }
+        return fetched(result);
+    }
+
+    private static Lookup fetched(ResultContainer<List<String>> result) {
+        if (result.getErrorMsg().isPresent()) {
+            return new Lookup(result, TagLookupResult.Source.NONE, 0);
+        }
+        return new Lookup(result, TagLookupResult.Source.REGISTRY, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the tags of the given repository held in memory, even stale ones, without loading or refreshing them.
+     *
+     * @return the cached tags, {@code null} if there are none or they expired long ago
+     */
+    public List<String> peek(Key key) {
+        long ttl = getTtlMillis();
+        if (ttl <= 0) {
+            return null;
+        }
+        Entry entry = getEntry(key);
+        if (entry == null || System.currentTimeMillis() - entry.fetchedAt >= ttl * MAX_STALE_FACTOR) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores tags as if they had been fetched at the given time, to test how their age is handled.
+     */
+    void put(Key key, List<String> tags, long fetchedAt) {
+        synchronized (entries) {
+            entries.put(key, new Entry(tags, fetchedAt, fetchedAt));
+        }
+    }
+
+    public void invalidate(Key key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Entry getEntry(Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Seeds the cache with the tags stored by {@link TagSnapshotStore}, e.g. before a restart.
+     */
+    private Entry restore(Key key) {
+        TagSnapshotStore.Snapshot snapshot = TagSnapshotStore.load(key);
+        if (snapshot == null) {
+            return null;
+        }
+        synchronized (entries) {
+            // a concurrent load may have stored fresher tags in the meantime
+            return entries.computeIfAbsent(key, k -> new Entry(snapshot.tags(), snapshot.fetchedAt(), snapshot.fetchedAt()));
+        }
+    }
+
+    /**
+     * Runs the loader, or waits for the load of the same repository already running in another thread.
+     */
+    private ResultContainer<List<String>> load(Key key, Supplier<ResultContainer<List<String>>> loader, boolean store) {
+        CompletableFuture<ResultContainer<List<String>>> future = new CompletableFuture<>();
+        CompletableFuture<ResultContainer<List<String>>> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            logger.fine(() -> "Joining the running fetch of " + key);
+            return copy(running.join());
+        }
+
+        try {
+            ResultContainer<List<String>> result = loader.get();
+            if (store && result.getErrorMsg().isEmpty()) {
+                long now = System.currentTimeMillis();
+                long storedAt;
+                synchronized (entries) {
+                    Entry previous = entries.get(key);
+                    // a revalidated list that did not change is the very same instance
+                    boolean unchanged = previous != null && previous.value == result.getValue();
+                    storedAt = unchanged && now - previous.storedAt < SNAPSHOT_INTERVAL ? previous.storedAt : now;
+                    entries.put(key, new Entry(result.getValue(), now, storedAt));
+                }
+                if (storedAt == now) {
+                    TagSnapshotStore.save(key, new TagSnapshotStore.Snapshot(result.getValue(), now));
+                }
+            }
+            future.complete(copy(result));
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static <V> ResultContainer<V> copy(ResultContainer<V> result) {
+        ResultContainer<V> copy = new ResultContainer<>(result.getValue());
+        result.getErrorMsg().ifPresent(copy::setErrorMsg);
+        return copy;
+    }
+
+    private void scheduleRefresh(Key key, Entry entry, Supplier<ResultContainer<List<String>>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(key, loader, true);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Unable to refresh tags of " + key, e);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.fine(() -> "Refresh queue is full, skipping refresh of " + key);
+            entry.refreshing.set(false);
+        }
+    }
+
+    private static long getTtlMillis() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? TimeUnit.SECONDS.toMillis(config.getTagCacheTtl()) : 0;
+    }
+
+    /**
+     * The tags of a repository, where they came from and when they were fetched from the registry.
+     *
+     * @param fetchedAt the time the tags were fetched in milliseconds since the epoch, 0 if they could not be
+     */
+    public record Lookup(ResultContainer<List<String>> tags, TagLookupResult.Source source, long fetchedAt) {
+    }
+
+    /**
+     * Identifies a repository on a registry as seen through one credential.
+     */
+    public record Key(String registry, String image, String credential) {
+        @Override
+        public String toString() {
+            return registry + "/" + image;
+        }
+    }
+
+    private static final class Entry {
+        private final List<String> value;
+        private final long fetchedAt;
+        // when the list was last handed to TagSnapshotStore
+        private final long storedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(List<String> value, long fetchedAt, long storedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Job;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import jenkins.model.Jenkins;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Prefetches the tags of all image tag parameters at startup and whenever a job is saved, so the first user opening
+ * the build form after a restart or a configuration change is served from the tag cache.
+ */
+@Extension
+public class ImageTagCacheWarmer extends SaveableListener {
+
+    private static final Logger logger = Logger.getLogger(ImageTagCacheWarmer.class.getName());
+    private static final ExecutorService warmer = createExecutor();
+
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    @SuppressWarnings("unused")
+    public static void warmUpAtStartup() {
+        if (!isEnabled()) {
+            return;
+        }
+        logger.info("Warming up the image tag cache");
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            Jenkins.get().allItems(Job.class).forEach(ImageTagCacheWarmer::warmUp);
+        }
+    }
+
+    @Override
+    public void onChange(Saveable o, XmlFile file) {
+        if (o instanceof Job<?, ?> job && isEnabled()) {
+            warmUp(job);
+        }
+    }
+
+    private static void warmUp(Job<?, ?> job) {
+        ParametersDefinitionProperty property = job.getProperty(ParametersDefinitionProperty.class);
+        if (property == null) {
+            return;
+        }
+        for (ParameterDefinition definition : property.getParameterDefinitions()) {
+            if (definition instanceof ImageTagParameterDefinition imageTagDefinition) {
+                try {
+                    warmer.execute(() -> warmUp(job, imageTagDefinition));
+                } catch (RejectedExecutionException e) {
+                    logger.fine(() -> "Warm-up queue is full, skipping " + job.getFullName());
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void warmUp(Job<?, ?> job, ImageTagParameterDefinition definition) {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            TagQuery query = definition.getTagQuery(job);
+            logger.fine(() -> "Warming up tags of " + query + " for " + job.getFullName());
+            ImageTag.getTags(query);
+        } catch (PatternSyntaxException e) {
+            logger.fine(() -> "Not warming up " + definition.getName() + " of " + job.getFullName() + ": invalid filter");
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to warm up tags of " + definition.getName() + " of " + job.getFullName(), e);
+        }
+    }
+
+    private static boolean isEnabled() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null && config.isWarmUpTagCache() && config.getTagCacheTtl() > 0;
+    }
+
+    private static ExecutorService createExecutor() {
+        ThreadFactory factory = new NamedThreadFactory(new DaemonThreadFactory(), "ImageTagCache warm-up");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000),
+            runnable -> {
+                Thread thread = factory.newThread(runnable);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -4,6 +4,7 @@ import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
 import hudson.Extension;
 import hudson.security.ACL;
+import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import io.jenkins.plugins.luxair.model.Ordering;
 import io.jenkins.plugins.luxair.util.StringUtil;
@@ -14,6 +15,7 @@ import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest2;
 
+import java.util.List;
 import java.util.logging.Logger;
 
 @Extension
@@ -21,6 +23,10 @@ public class ImageTagParameterConfiguration extends GlobalConfiguration {
 
     private static final Logger logger = Logger.getLogger(ImageTagParameterConfiguration.class.getName());
     private static final String DEFAULT_REGISTRY = "https://registry-1.docker.io";
+    private static final int DEFAULT_TAG_CACHE_TTL = 60;
+    static final int DEFAULT_CONNECT_TIMEOUT = 10;
+    static final int DEFAULT_READ_TIMEOUT = 30;
+    private static final int DEFAULT_REGISTRY_RETRIES = 2;
 
     public static ImageTagParameterConfiguration get() {
         return GlobalConfiguration.all().get(ImageTagParameterConfiguration.class);
@@ -30,6 +36,13 @@ public class ImageTagParameterConfiguration extends GlobalConfiguration {
     private String defaultCredentialId = "";
     private Ordering defaultTagOrdering = Ordering.NATURAL;
     private boolean defaultVerifySsl = true;
+    private int tagCacheTtl = DEFAULT_TAG_CACHE_TTL;
+    private int tagPageSize = 0;
+    private int registryRequestsPerSecond = 0;
+    private boolean warmUpTagCache = false;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+    private int registryRetries = DEFAULT_REGISTRY_RETRIES;
 
     public ImageTagParameterConfiguration() {
         load();
@@ -47,6 +60,58 @@ public class ImageTagParameterConfiguration extends GlobalConfiguration {
         return defaultTagOrdering != null ? defaultTagOrdering : Ordering.NATURAL;
     }
 
+    public boolean isDefaultVerifySsl() {
+        return defaultVerifySsl;
+    }
+
+    public int getTagCacheTtl() {
+        return Math.max(tagCacheTtl, 0);
+    }
+
+    public int getTagPageSize() {
+        return Math.max(tagPageSize, 0);
+    }
+
+    public int getRegistryRequestsPerSecond() {
+        return Math.max(registryRequestsPerSecond, 0);
+    }
+
+    public boolean isWarmUpTagCache() {
+        return warmUpTagCache;
+    }
+
+    /**
+     * @return the connect timeout in seconds, never 0 as that would disable it
+     */
+    public int getConnectTimeout() {
+        return connectTimeout > 0 ? connectTimeout : DEFAULT_CONNECT_TIMEOUT;
+    }
+
+    /**
+     * @return the read timeout in seconds, never 0 as that would disable it
+     */
+    public int getReadTimeout() {
+        return readTimeout > 0 ? readTimeout : DEFAULT_READ_TIMEOUT;
+    }
+
+    public int getRegistryRetries() {
+        return Math.max(registryRetries, 0);
+    }
+
+    /**
+     * Statistics shown on the status page of this configuration.
+     */
+    public RegistryStats getStats() {
+        return RegistryStats.get();
+    }
+
+    /**
+     * Circuit breaker state of the registries, shown on the configuration and status page.
+     */
+    public List<RegistryCircuitBreaker.State> getCircuits() {
+        return RegistryCircuitBreaker.getStates();
+    }
+
     @Override
     public boolean configure(StaplerRequest2 req, JSONObject json) {
         if (json.has("defaultRegistry")) {
@@ -61,6 +126,38 @@ public class ImageTagParameterConfiguration extends GlobalConfiguration {
             this.defaultTagOrdering = Ordering.valueOf(json.getString("defaultTagOrdering"));
             logger.fine("Changed default tag ordering to: " + defaultTagOrdering);
         }
+        if (json.has("defaultVerifySsl")) {
+            this.defaultVerifySsl = json.getBoolean("defaultVerifySsl");
+            logger.fine("Changed default SSL verification to: " + defaultVerifySsl);
+        }
+        if (json.has("tagCacheTtl")) {
+            this.tagCacheTtl = json.getInt("tagCacheTtl");
+            logger.fine("Changed tag cache TTL to: " + tagCacheTtl);
+        }
+        if (json.has("tagPageSize")) {
+            this.tagPageSize = json.getInt("tagPageSize");
+            logger.fine("Changed tag page size to: " + tagPageSize);
+        }
+        if (json.has("registryRequestsPerSecond")) {
+            this.registryRequestsPerSecond = json.getInt("registryRequestsPerSecond");
+            logger.fine("Changed registry request rate limit to: " + registryRequestsPerSecond);
+        }
+        if (json.has("warmUpTagCache")) {
+            this.warmUpTagCache = json.getBoolean("warmUpTagCache");
+            logger.fine("Changed tag cache warm-up to: " + warmUpTagCache);
+        }
+        if (json.has("connectTimeout")) {
+            this.connectTimeout = json.getInt("connectTimeout");
+            logger.fine("Changed registry connect timeout to: " + connectTimeout);
+        }
+        if (json.has("readTimeout")) {
+            this.readTimeout = json.getInt("readTimeout");
+            logger.fine("Changed registry read timeout to: " + readTimeout);
+        }
+        if (json.has("registryRetries")) {
+            this.registryRetries = json.getInt("registryRetries");
+            logger.fine("Changed registry request retries to: " + registryRetries);
+        }
         save();
         return true;
     }
@@ -89,6 +186,88 @@ public class ImageTagParameterConfiguration extends GlobalConfiguration {
         save();
     }
 
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setDefaultVerifySsl(boolean defaultVerifySsl) {
+        logger.info("Changing default SSL verification to: " + defaultVerifySsl);
+        this.defaultVerifySsl = defaultVerifySsl;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setTagCacheTtl(int tagCacheTtl) {
+        logger.info("Changing tag cache TTL to: " + tagCacheTtl);
+        this.tagCacheTtl = tagCacheTtl;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setTagPageSize(int tagPageSize) {
+        logger.info("Changing tag page size to: " + tagPageSize);
+        this.tagPageSize = tagPageSize;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setRegistryRequestsPerSecond(int registryRequestsPerSecond) {
+        logger.info("Changing registry request rate limit to: " + registryRequestsPerSecond);
+        this.registryRequestsPerSecond = registryRequestsPerSecond;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setWarmUpTagCache(boolean warmUpTagCache) {
+        logger.info("Changing tag cache warm-up to: " + warmUpTagCache);
+        this.warmUpTagCache = warmUpTagCache;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setConnectTimeout(int connectTimeout) {
+        logger.info("Changing registry connect timeout to: " + connectTimeout);
+        this.connectTimeout = connectTimeout;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setReadTimeout(int readTimeout) {
+        logger.info("Changing registry read timeout to: " + readTimeout);
+        this.readTimeout = readTimeout;
+        save();
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setRegistryRetries(int registryRetries) {
+        logger.info("Changing registry request retries to: " + registryRetries);
+        this.registryRetries = registryRetries;
+        save();
+    }
+
+    @SuppressWarnings("unused")
+    public FormValidation doCheckConnectTimeout(@QueryParameter int value) {
+        return checkTimeout(value, DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    @SuppressWarnings("unused")
+    public FormValidation doCheckReadTimeout(@QueryParameter int value) {
+        return checkTimeout(value, DEFAULT_READ_TIMEOUT);
+    }
+
+    private static FormValidation checkTimeout(int value, int defaultValue) {
+        if (value < 1) {
+            return FormValidation.warning("A timeout below 1 second is not supported, " + defaultValue
+                + " seconds are used instead");
+        }
+        return FormValidation.ok();
+    }
+
     @SuppressWarnings("unused")
     public ListBoxModel doFillDefaultCredentialIdItems(@QueryParameter String credentialsId) {
         if (!Jenkins.get().hasPermission(Jenkins.ADMINISTER)) {
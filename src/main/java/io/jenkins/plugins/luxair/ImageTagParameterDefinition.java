@@ -7,29 +7,48 @@ import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
 import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
 import hudson.Extension;
+import hudson.model.AutoCompletionCandidates;
 import hudson.model.Item;
+import hudson.model.Job;
 import hudson.model.ParameterDefinition;
 import hudson.model.ParameterValue;
+import hudson.model.ParametersDefinitionProperty;
 import hudson.model.Queue;
 import hudson.model.queue.Tasks;
 import hudson.model.SimpleParameterDefinition;
 import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import io.jenkins.plugins.luxair.model.Ordering;
 import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagLookupResult;
+import io.jenkins.plugins.luxair.model.TagQuery;
 import io.jenkins.plugins.luxair.util.StringUtil;
+import io.jenkins.plugins.luxair.util.TagFilter;
+import io.jenkins.plugins.luxair.util.TagIndex;
 import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.jenkinsci.Symbol;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.*;
+import org.kohsuke.stapler.verb.GET;
+import org.springframework.security.core.Authentication;
 
 import javax.annotation.Nonnull;
 import java.io.Serial;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 
 public class ImageTagParameterDefinition extends SimpleParameterDefinition {
@@ -38,6 +57,11 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
     private static final long serialVersionUID = 3938123092372L;
     private static final Logger logger = Logger.getLogger(ImageTagParameterDefinition.class.getName());
     private static final ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    // number of tags of a page whose digest is resolved, those at the top of the list
+    private static final int DIGESTS_PER_PAGE = 25;
+    private static final int MAX_CANDIDATES = 20;
 
     private final String image;
     private final String registry;
@@ -45,8 +69,13 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
     private final String credentialId;
     private String defaultTag;
     private Ordering tagOrder;
-    private String errorMsg = "";
     private Boolean verifySsl = true;
+    private Integer maxTags = 0;
+    private Boolean resolveDigest = false;
+    private Boolean validateTag = false;
+    private transient volatile TagFilter tagFilter;
+    // the job defining this parameter, found on first use outside of a request to it
+    private transient volatile Job<?, ?> owner;
 
     @DataBoundConstructor
     @SuppressWarnings("unused")
@@ -87,6 +116,20 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
         return filter;
     }
 
+    /**
+     * The compiled {@link #getFilter()}, a reconfigured parameter is a new instance and compiles its own.
+     *
+     * @throws PatternSyntaxException if the filter is not a valid regular expression
+     */
+    private TagFilter getTagFilter() {
+        TagFilter compiled = tagFilter;
+        if (compiled == null) {
+            compiled = TagFilter.compile(filter);
+            tagFilter = compiled;
+        }
+        return compiled;
+    }
+
     public String getDefaultTag() {
         return defaultTag;
     }
@@ -111,14 +154,6 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
         this.tagOrder = tagOrder;
     }
 
-    public String getErrorMsg() {
-        return errorMsg;
-    }
-
-    public void setErrorMsg(String errorMsg) {
-        this.errorMsg = errorMsg;
-    }
-
     public boolean isVerifySsl() {
 		return verifySsl;
 	}
@@ -129,6 +164,36 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
 		this.verifySsl = verifySsl;
 	}
 
+    public int getMaxTags() {
+        return maxTags != null ? Math.max(maxTags, 0) : 0;
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setMaxTags(int maxTags) {
+        this.maxTags = maxTags;
+    }
+
+    public boolean isResolveDigest() {
+        return resolveDigest != null && resolveDigest;
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setResolveDigest(boolean resolveDigest) {
+        this.resolveDigest = resolveDigest;
+    }
+
+    public boolean isValidateTag() {
+        return validateTag != null && validateTag;
+    }
+
+    @DataBoundSetter
+    @SuppressWarnings("unused")
+    public void setValidateTag(boolean validateTag) {
+        this.validateTag = validateTag;
+    }
+
     private String getDefaultOrEmptyCredentialId(String registry, String credentialId) {
         if (registry.equals(config.getDefaultRegistry()) && !StringUtil.isNotNullOrEmpty(credentialId)) {
             return config.getDefaultCredentialId();
@@ -140,40 +205,133 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
     }
 
     public List<String> getTags() {
+        return lookup().getTags();
+    }
+
+    /**
+     * Looks up the tags offered by this parameter along with any error and where they came from, without modifying
+     * this parameter.
+     */
+    public TagLookupResult lookup() {
+        try {
+            return ImageTag.lookUp(getTagQuery());
+        } catch (PatternSyntaxException e) {
+            return TagLookupResult.of(invalidFilter(e));
+        }
+    }
+
+    /**
+     * @deprecated the error of a lookup is returned with its tags by {@link #lookup()}
+     */
+    @Deprecated
+    public String getErrorMsg() {
+        return "";
+    }
+
+    /**
+     * @deprecated the error of a lookup is returned with its tags by {@link #lookup()}
+     */
+    @Deprecated
+    @SuppressWarnings("unused")
+    public void setErrorMsg(String errorMsg) {
+        // a parameter shared by concurrent requests holds no lookup state
+    }
+
+    /**
+     * Resolves the credential of this parameter, in the context of the item of the current request or else the job
+     * defining this parameter, into a query for {@link ImageTag}.
+     *
+     * @throws PatternSyntaxException if the filter is not a valid regular expression
+     */
+    public TagQuery getTagQuery() {
+        Item context = Optional.ofNullable(Stapler.getCurrentRequest2())
+            .map(request -> request.findAncestorObject(Item.class))
+            .orElse(null);
+        return getTagQuery(context != null ? context : getOwner());
+    }
+
+    /**
+     * The job defining this parameter, to resolve its credential in when a value is created outside of a request to
+     * the job, e.g. for builds triggered via the CLI or by an upstream job. Jobs are only searched until it is found.
+     *
+     * @return the job, {@code null} if this parameter is not (yet) part of one
+     */
+    private Job<?, ?> getOwner() {
+        Job<?, ?> job = owner;
+        if (job != null) {
+            return job;
+        }
+        StaplerRequest2 request = Stapler.getCurrentRequest2();
+        Job<?, ?> candidate = request != null ? request.findAncestorObject(Job.class) : null;
+        if (candidate != null && isDefinedIn(candidate)) {
+            job = candidate;
+        } else if (Jenkins.getInstanceOrNull() != null) {
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                for (Job<?, ?> defining : Jenkins.get().allItems(Job.class, this::isDefinedIn)) {
+                    job = defining;
+                    break;
+                }
+            }
+        }
+        owner = job;
+        return job;
+    }
+
+    private boolean isDefinedIn(Job<?, ?> job) {
+        ParametersDefinitionProperty property = job.getProperty(ParametersDefinitionProperty.class);
+        return property != null && property.getParameterDefinitions().stream().anyMatch(definition -> definition == this);
+    }
+
+    /**
+     * Resolves the credential of this parameter, in the context of the given item, into a query for {@link ImageTag}.
+     *
+     * @throws PatternSyntaxException if the filter is not a valid regular expression
+     */
+    public TagQuery getTagQuery(Item context) {
         String user = "";
         String password = "";
 
-        StandardUsernamePasswordCredentials credential = findCredential(credentialId);
+        StandardUsernamePasswordCredentials credential = findCredential(context, credentialId);
         if (credential != null) {
             user = credential.getUsername();
             password = credential.getPassword().getPlainText();
         }
 
-        ResultContainer<List<String>> resultContainer = ImageTag
-            .getTags(image, registry, filter, user, password, getTagOrder(), verifySsl);
-        Optional<String> optionalErrorMsg = resultContainer.getErrorMsg();
-        if (optionalErrorMsg.isPresent()) {
-            setErrorMsg(optionalErrorMsg.get());
-        } else {
-            setErrorMsg("");
-        }
+        return new TagQuery(image, registry, getTagFilter(), user, password, getTagOrder(), isVerifySsl(), getMaxTags());
+    }
 
-        return resultContainer.getValue();
+    private static ResultContainer<List<String>> invalidFilter(PatternSyntaxException e) {
+        ResultContainer<List<String>> resultContainer = new ResultContainer<>(Collections.emptyList());
+        resultContainer.setErrorMsg("Invalid tag filter pattern: " + e.getDescription());
+        return resultContainer;
+    }
+
+    /**
+     * URL of {@link DescriptorImpl#doTags} for this parameter, or {@code null} when not rendered within a job.
+     */
+    @Restricted(NoExternalUse.class)
+    public String getTagsUrl() {
+        StaplerRequest2 request = Stapler.getCurrentRequest2();
+        Ancestor ancestor = request != null ? request.findAncestor(Job.class) : null;
+        if (ancestor == null) {
+            return null;
+        }
+        return ancestor.getUrl() + "/descriptorByName/" + getDescriptor().getId() + "/tags";
     }
 
-    private StandardUsernamePasswordCredentials findCredential(String credentialId) {
+    private static StandardUsernamePasswordCredentials findCredential(Item context, String credentialId) {
         if (StringUtil.isNotNullOrEmpty(credentialId)) {
-            Item context = Optional.ofNullable(Stapler.getCurrentRequest2())
-                .map(request -> request.findAncestorObject(Item.class))
-                .orElse(null);
-
-            List<StandardUsernamePasswordCredentials> lookupCredentials = CredentialsProvider.lookupCredentialsInItem(
-                StandardUsernamePasswordCredentials.class,
-                context,
-                context instanceof Queue.Task ? Tasks.getAuthenticationOf2((Queue.Task)context) : ACL.SYSTEM2,
-                Collections.emptyList());
-            CredentialsMatcher allOf = CredentialsMatchers.allOf(CredentialsMatchers.withId(credentialId));
-            return CredentialsMatchers.firstOrNull(lookupCredentials, allOf);
+            Authentication authentication =
+                context instanceof Queue.Task ? Tasks.getAuthenticationOf2((Queue.Task)context) : ACL.SYSTEM2;
+            return CredentialCache.get(context, authentication, credentialId, () -> {
+                List<StandardUsernamePasswordCredentials> lookupCredentials = CredentialsProvider.lookupCredentialsInItem(
+                    StandardUsernamePasswordCredentials.class,
+                    context,
+                    authentication,
+                    Collections.emptyList());
+                CredentialsMatcher allOf = CredentialsMatchers.allOf(CredentialsMatchers.withId(credentialId));
+                return CredentialsMatchers.firstOrNull(lookupCredentials, allOf);
+            });
         } else {
             logger.info("CredentialId is empty");
         }
@@ -183,21 +341,78 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
     @Override
     public ParameterDefinition copyWithDefaultValue(ParameterValue defaultValue) {
         if (defaultValue instanceof ImageTagParameterValue value) {
-            return new ImageTagParameterDefinition(getName(), getDescription(),
+            ImageTagParameterDefinition copy = new ImageTagParameterDefinition(getName(), getDescription(),
                 getImage(), getFilter(), value.getImageTag(),
                 getRegistry(), getCredentialId(), getTagOrder());
+            copy.setVerifySsl(isVerifySsl());
+            copy.setMaxTags(getMaxTags());
+            copy.setResolveDigest(isResolveDigest());
+            copy.setValidateTag(isValidateTag());
+            copy.owner = owner;
+            return copy;
         }
         return this;
     }
 
     @Override
     public ParameterValue createValue(String value) {
-        return new ImageTagParameterValue(getName(), image, value, getDescription());
+        return withDigest(validated(new ImageTagParameterValue(getName(), image, value, getDescription())));
     }
 
     @Override
     public ParameterValue createValue(StaplerRequest2 req, JSONObject jo) {
-        return req.bindJSON(ImageTagParameterValue.class, jo);
+        return withDigest(validated(req.bindJSON(ImageTagParameterValue.class, jo)));
+    }
+
+    /**
+     * Rejects a tag the image does not have if enabled, e.g. passed via {@code buildWithParameters} or the CLI. The
+     * tag is looked up in the cached tags first, see {@link ImageTag#hasTag}, with the credential resolved in the job
+     * defining this parameter. If the registry cannot tell, the value is accepted.
+     *
+     * @throws IllegalArgumentException if the tag does not exist
+     */
+    private ImageTagParameterValue validated(ImageTagParameterValue value) {
+        if (!isValidateTag()) {
+            return value;
+        }
+        String tag = value.getImageTag();
+        if (!StringUtil.isNotNullOrEmpty(tag)) {
+            throw new IllegalArgumentException("No tag of " + image + " given for parameter " + getName());
+        }
+        try {
+            ResultContainer<Boolean> exists = ImageTag.hasTag(getTagQuery(getOwner()), tag);
+            if (exists.getValue()) {
+                return value;
+            }
+            if (exists.getErrorMsg().isPresent()) {
+                logger.warning("Unable to validate " + image + ":" + tag + ", accepting it: " + exists.getErrorMsg().get());
+                return value;
+            }
+        } catch (PatternSyntaxException e) {
+            logger.warning("Not validating " + image + ":" + tag + ": invalid tag filter pattern");
+            return value;
+        }
+        throw new IllegalArgumentException("Tag " + tag + " of " + image + " does not exist");
+    }
+
+    /**
+     * Resolves the digest of the selected tag if enabled, a failure leaves the value without digest.
+     */
+    private ImageTagParameterValue withDigest(ImageTagParameterValue value) {
+        if (!isResolveDigest() || !StringUtil.isNotNullOrEmpty(value.getImageTag())) {
+            return value;
+        }
+        try {
+            ResultContainer<Map<String, ManifestCache.Manifest>> manifests =
+                ImageTag.getManifests(getTagQuery(getOwner()), List.of(value.getImageTag()));
+            ManifestCache.Manifest manifest = manifests.getValue().get(value.getImageTag());
+            if (manifest != null) {
+                value.setDigest(manifest.digest());
+            }
+        } catch (PatternSyntaxException e) {
+            logger.warning("Not resolving the digest of " + value.getValue() + ": invalid tag filter pattern");
+        }
+        return value;
     }
 
     @Symbol("imageTag")
@@ -225,6 +440,125 @@ public class ImageTagParameterDefinition extends SimpleParameterDefinition {
             return config.getDefaultTagOrdering();
         }
 
+        /**
+         * Serves the tags of the image tag parameters of a job named by the {@code name} query parameters as JSON,
+         * so the build form can load them after rendering. All requested parameters are looked up concurrently.
+         * <p>
+         * Only one page of the tags containing the keyword {@code q} is returned per parameter, starting at
+         * {@code offset} and holding up to {@code limit} tags, along with the {@code total} number of matching tags.
+         */
+        @GET
+        @SuppressWarnings("unused")
+        public HttpResponse doTags(@AncestorInPath Item context, StaplerRequest2 req, @QueryParameter String q,
+                                   @QueryParameter int offset, @QueryParameter int limit) {
+            if (!(context instanceof Job<?, ?> job)) {
+                return HttpResponses.notFound();
+            }
+            job.checkPermission(Item.BUILD);
+
+            ParametersDefinitionProperty property = job.getProperty(ParametersDefinitionProperty.class);
+            String[] names = req.getParameterValues("name");
+            if (property == null || names == null) {
+                return HttpResponses.notFound();
+            }
+
+            Map<String, ImageTagParameterDefinition> definitions = new LinkedHashMap<>();
+            Map<String, ResultContainer<TagIndex>> results = new HashMap<>();
+            Map<String, TagQuery> queries = new HashMap<>();
+            for (String name : names) {
+                if (property.getParameterDefinition(name) instanceof ImageTagParameterDefinition definition) {
+                    definitions.put(name, definition);
+                    try {
+                        queries.put(name, definition.getTagQuery());
+                    } catch (PatternSyntaxException e) {
+                        ResultContainer<TagIndex> resultContainer = new ResultContainer<>(TagIndex.EMPTY);
+                        resultContainer.setErrorMsg("Invalid tag filter pattern: " + e.getDescription());
+                        results.put(name, resultContainer);
+                    }
+                }
+            }
+            Map<TagQuery, ResultContainer<TagIndex>> lookups = ImageTag.getTagIndexes(queries.values());
+            queries.forEach((name, query) -> results.put(name, lookups.get(query)));
+
+            int pageSize = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+            Map<String, TagIndex.Page> pages = new HashMap<>();
+            Map<TagQuery, List<String>> digestTags = new LinkedHashMap<>();
+            definitions.forEach((name, definition) -> {
+                TagIndex.Page page = results.get(name).getValue().search(q, offset, pageSize);
+                pages.put(name, page);
+                if (definition.isResolveDigest() && queries.containsKey(name) && !page.tags().isEmpty()) {
+                    digestTags.put(queries.get(name),
+                        page.tags().subList(0, Math.min(page.tags().size(), DIGESTS_PER_PAGE)));
+                }
+            });
+            // the digests of all parameters are resolved concurrently, like their tags
+            Map<TagQuery, ResultContainer<Map<String, ManifestCache.Manifest>>> manifests =
+                ImageTag.getManifests(digestTags);
+
+            JSONObject data = new JSONObject();
+            definitions.forEach((name, definition) -> {
+                ResultContainer<TagIndex> resultContainer = results.get(name);
+                TagIndex index = resultContainer.getValue();
+                TagIndex.Page page = pages.get(name);
+                JSONObject digests = new JSONObject();
+                if (definition.isResolveDigest() && manifests.containsKey(queries.get(name))) {
+                    manifests.get(queries.get(name)).getValue()
+                        .forEach((tag, manifest) -> digests.element(tag, manifest.digest()));
+                }
+                String defaultTag = definition.getDefaultTag();
+                data.element(name, new JSONObject()
+                    .element("tags", JSONArray.fromObject(page.tags()))
+                    .element("digests", digests)
+                    .element("total", page.total())
+                    .element("offset", Math.max(offset, 0))
+                    .element("defaultTag", defaultTag)
+                    .element("hasDefaultTag",
+                        StringUtil.isNotNullOrEmpty(defaultTag) && index.contains(defaultTag))
+                    .element("errorMsg", resultContainer.getErrorMsg().orElse("")));
+            });
+            return HttpResponses.okJSON(data);
+        }
+
+        /**
+         * Completes the image name from the catalog of the default registry, see {@link CatalogIndex}. Only the
+         * registry, credential and SSL verification of the global configuration are used, so a request can neither
+         * name another host nor pick the credential sent to it.
+         */
+        @SuppressWarnings("unused")
+        public AutoCompletionCandidates doAutoCompleteImage(@AncestorInPath Item context, @QueryParameter String value) {
+            AutoCompletionCandidates candidates = new AutoCompletionCandidates();
+            if (context == null && !Jenkins.get().hasPermission(Jenkins.ADMINISTER) ||
+                context != null && !context.hasPermission(Item.CONFIGURE)) {
+                return candidates;
+            }
+            String user = "";
+            String password = "";
+            StandardUsernamePasswordCredentials credential = findCredential(context, config.getDefaultCredentialId());
+            if (credential != null) {
+                user = credential.getUsername();
+                password = credential.getPassword().getPlainText();
+            }
+
+            ResultContainer<List<String>> completion = CatalogIndex.complete(config.getDefaultRegistry(), user, password,
+                config.isDefaultVerifySsl(), value, MAX_CANDIDATES);
+            completion.getErrorMsg().ifPresent(errorMsg -> logger.fine(errorMsg));
+            completion.getValue().forEach(candidates::add);
+            return candidates;
+        }
+
+        @SuppressWarnings("unused")
+        public FormValidation doCheckFilter(@QueryParameter String value) {
+            if (!StringUtil.isNotNullOrEmpty(value)) {
+                return FormValidation.ok();
+            }
+            try {
+                Pattern.compile(value);
+                return FormValidation.ok();
+            } catch (PatternSyntaxException e) {
+                return FormValidation.error("Invalid regular expression: " + e.getDescription());
+            }
+        }
+
         @SuppressWarnings("unused")
         public ListBoxModel doFillCredentialIdItems(@AncestorInPath Item context,
                                                     @QueryParameter String credentialId) {
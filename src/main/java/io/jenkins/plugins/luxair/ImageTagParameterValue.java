@@ -28,6 +28,10 @@ public class ImageTagParameterValue extends ParameterValue {
     @Restricted(NoExternalUse.class)
     public String value;
 
+    @Exported(visibility = 4)
+    @Restricted(NoExternalUse.class)
+    public String digest;
+
     @DataBoundConstructor
     public ImageTagParameterValue(String name, String imageName, String imageTag) {
         this(name, imageName, imageTag, null);
@@ -48,6 +52,17 @@ public class ImageTagParameterValue extends ParameterValue {
         return imageTag;
     }
 
+    /**
+     * @return the digest of the manifest the tag pointed to when the build was queued, {@code null} if not resolved
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
     @Override
     public String getValue() {
         return value;
@@ -66,6 +81,12 @@ public class ImageTagParameterValue extends ParameterValue {
         env.put(String.format("%s_TAG", name), imageTag);
         env.put(String.format("%s_TAG", name).toUpperCase(Locale.ENGLISH), imageTag); // backward compatibility pre 1.345
 
+        // exposes the manifest digest, if resolved
+        if (digest != null) {
+            env.put(String.format("%s_DIGEST", name), digest);
+            env.put(String.format("%s_DIGEST", name).toUpperCase(Locale.ENGLISH), digest);
+        }
+
         // exposes ImageName:ImageTag (aka. value)
         env.put(name, value);
         env.put(name.toUpperCase(Locale.ENGLISH), value); // backward compatibility pre 1.345
@@ -0,0 +1,216 @@
+package io.jenkins.plugins.luxair;
+
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
+import com.cloudbees.plugins.credentials.common.StandardUsernameCredentials;
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.security.ACL;
+import hudson.util.ListBoxModel;
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import io.jenkins.plugins.luxair.util.StringUtil;
+import io.jenkins.plugins.luxair.util.TagFilter;
+import jenkins.model.Jenkins;
+import org.jenkinsci.Symbol;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Pipeline step returning the tags of an image, e.g. {@code imageTags(image: 'jenkins/jenkins', filter: 'lts.*',
+ * ordering: 'DSC_VERSION', limit: 1)[0]} for the latest LTS tag.
+ * <p>
+ * The lookup runs on the controller through {@link ImageTag}, so concurrent builds share the pooled connections,
+ * tokens and cached tag lists with the build forms. Only the first {@code limit} tags are handed to the pipeline and
+ * thereby stored with its program state.
+ */
+public class ImageTagsStep extends Step {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final String image;
+    private String registry;
+    private String credentialId;
+    private String filter = ".*";
+    private Ordering ordering;
+    private int limit = DEFAULT_LIMIT;
+    private boolean verifySsl = true;
+
+    @DataBoundConstructor
+    public ImageTagsStep(String image) {
+        this.image = image;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public String getRegistry() {
+        return registry;
+    }
+
+    @DataBoundSetter
+    public void setRegistry(String registry) {
+        this.registry = StringUtil.isNotNullOrEmpty(registry) ? registry : null;
+    }
+
+    public String getCredentialId() {
+        return credentialId;
+    }
+
+    @DataBoundSetter
+    public void setCredentialId(String credentialId) {
+        this.credentialId = StringUtil.isNotNullOrEmpty(credentialId) ? credentialId : null;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    @DataBoundSetter
+    public void setFilter(String filter) {
+        this.filter = StringUtil.isNotNullOrEmpty(filter) ? filter : ".*";
+    }
+
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    @DataBoundSetter
+    public void setOrdering(Ordering ordering) {
+        this.ordering = ordering;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit the maximum number of tags returned, {@code 0} returns all of them
+     */
+    @DataBoundSetter
+    public void setLimit(int limit) {
+        this.limit = Math.max(limit, 0);
+    }
+
+    public boolean isVerifySsl() {
+        return verifySsl;
+    }
+
+    @DataBoundSetter
+    public void setVerifySsl(boolean verifySsl) {
+        this.verifySsl = verifySsl;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) {
+        return new Execution(this, context);
+    }
+
+    private static class Execution extends SynchronousNonBlockingStepExecution<List<String>> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient ImageTagsStep step;
+
+        Execution(ImageTagsStep step, StepContext context) {
+            super(context);
+            this.step = step;
+        }
+
+        @Override
+        protected List<String> run() throws Exception {
+            ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+            String registry = step.registry != null ? step.registry : config.getDefaultRegistry();
+            String credentialId = step.credentialId;
+            if (credentialId == null && registry.equals(config.getDefaultRegistry())) {
+                credentialId = config.getDefaultCredentialId();
+            }
+
+            String user = "";
+            String password = "";
+            if (StringUtil.isNotNullOrEmpty(credentialId)) {
+                StandardUsernamePasswordCredentials credential = CredentialsProvider.findCredentialById(credentialId,
+                    StandardUsernamePasswordCredentials.class, getContext().get(Run.class));
+                if (credential == null) {
+                    throw new AbortException("Credential " + credentialId + " not found");
+                }
+                user = credential.getUsername();
+                password = credential.getPassword().getPlainText();
+            }
+
+            TagFilter filter;
+            try {
+                filter = TagFilter.compile(step.filter);
+            } catch (PatternSyntaxException e) {
+                throw new AbortException("Invalid tag filter pattern: " + e.getDescription());
+            }
+            Ordering ordering = step.ordering != null ? step.ordering : config.getDefaultTagOrdering();
+            TagQuery query = new TagQuery(step.image, registry, filter, user, password, ordering, step.verifySsl,
+                step.limit);
+
+            ResultContainer<List<String>> result = ImageTag.getTags(query);
+            if (result.getErrorMsg().isPresent()) {
+                if (result.getValue().isEmpty()) {
+                    throw new AbortException(result.getErrorMsg().get());
+                }
+                getContext().get(TaskListener.class).getLogger().println(result.getErrorMsg().get());
+            }
+            return new ArrayList<>(result.getValue());
+        }
+    }
+
+    @Extension(optional = true)
+    @Symbol("imageTags")
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public String getFunctionName() {
+            return "imageTags";
+        }
+
+        @Override
+        @Nonnull
+        public String getDisplayName() {
+            return "Look up the tags of a container image";
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Set.of(Run.class, TaskListener.class);
+        }
+
+        @SuppressWarnings("unused")
+        public ListBoxModel doFillCredentialIdItems(@AncestorInPath Item context,
+                                                    @QueryParameter String credentialId) {
+            if (context == null && !Jenkins.get().hasPermission(Jenkins.ADMINISTER) ||
+                context != null && !context.hasPermission(Item.EXTENDED_READ)) {
+                return new StandardListBoxModel().includeCurrentValue(credentialId);
+            }
+            return new StandardListBoxModel()
+                .includeEmptyValue()
+                .includeAs(ACL.SYSTEM2, context, StandardUsernameCredentials.class)
+                .includeCurrentValue(credentialId);
+        }
+    }
+}
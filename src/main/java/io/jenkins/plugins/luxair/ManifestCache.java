@@ -0,0 +1,201 @@
+package io.jenkins.plugins.luxair;
+
+import jenkins.util.SystemProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the manifest each tag pointed to and the metadata of each manifest.
+ * <p>
+ * A tag may be moved to another manifest at any time, so the digest of a tag is only kept as long as the tag list
+ * (see {@link ImageTagParameterConfiguration#getTagCacheTtl()}). A manifest is addressed by its digest and never
+ * changes, its metadata is kept until evicted.
+ * <p>
+ * The creation time of the image behind a manifest, needed to order tags by it, is just as immutable. It is looked up
+ * per tag for a much longer time though, as resolving it again costs up to three requests per tag. Tags it could not
+ * be resolved for are not asked for again during {@code createdFailureTtlMinutes}.
+ * <p>
+ * Tags the registry reported as missing are remembered for {@code absentTtlSeconds}, so repeated checks of a tag that
+ * does not exist (yet) do not send a request each.
+ */
+public final class ManifestCache {
+
+    private static final int MAX_ENTRIES = SystemProperties.getInteger(ManifestCache.class.getName() + ".maxEntries", 10000);
+    private static final int MAX_CREATED_ENTRIES =
+        SystemProperties.getInteger(ManifestCache.class.getName() + ".maxCreatedEntries", 100000);
+    // how long the creation time of a tag is trusted before checking whether the tag moved
+    private static final long TAG_CREATED_TTL = TimeUnit.MINUTES.toMillis(
+        SystemProperties.getInteger(ManifestCache.class.getName() + ".tagCreatedTtlMinutes", 1440));
+    private static final long ABSENT_TTL = TimeUnit.SECONDS.toMillis(
+        SystemProperties.getInteger(ManifestCache.class.getName() + ".absentTtlSeconds", 30));
+    private static final long CREATED_FAILURE_TTL = TimeUnit.MINUTES.toMillis(
+        SystemProperties.getInteger(ManifestCache.class.getName() + ".createdFailureTtlMinutes", 10));
+
+    private static final Map<TagKey, Resolved> digests = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TagKey, Resolved> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final Map<String, Manifest> manifests = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Manifest> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static final Map<TagKey, Resolved> createdDigests = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TagKey, Resolved> eldest) {
+            return size() > MAX_CREATED_ENTRIES;
+        }
+    };
+    private static final Map<String, Long> created = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_CREATED_ENTRIES;
+        }
+    };
+    // when the registry reported a tag as missing
+    private static final Map<TagKey, Long> absent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TagKey, Long> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // when resolving the creation time of a tag failed
+    private static final Map<TagKey, Long> createdFailures = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TagKey, Long> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ManifestCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the manifest the given tag pointed to recently, or {@code null} if it has to be resolved again
+     */
+    public static Manifest get(ImageTagCache.Key key, String tag) {
+        Resolved resolved;
+        synchronized (digests) {
+            resolved = digests.get(new TagKey(key, tag));
+        }
+        if (resolved == null || System.currentTimeMillis() - resolved.resolvedAt() >= getTtlMillis()) {
+            return null;
+        }
+        return getManifest(resolved.digest());
+    }
+
+    public static Manifest getManifest(String digest) {
+        synchronized (manifests) {
+            return manifests.get(digest);
+        }
+    }
+
+    public static void put(ImageTagCache.Key key, String tag, Manifest manifest) {
+        synchronized (manifests) {
+            manifests.putIfAbsent(manifest.digest(), manifest);
+        }
+        synchronized (digests) {
+            digests.put(new TagKey(key, tag), new Resolved(manifest.digest(), System.currentTimeMillis()));
+        }
+        synchronized (absent) {
+            absent.remove(new TagKey(key, tag));
+        }
+    }
+
+    /**
+     * @return whether the registry reported the given tag as missing recently
+     */
+    public static boolean isAbsent(ImageTagCache.Key key, String tag) {
+        Long reportedAt;
+        synchronized (absent) {
+            reportedAt = absent.get(new TagKey(key, tag));
+        }
+        return reportedAt != null && System.currentTimeMillis() - reportedAt < ABSENT_TTL;
+    }
+
+    public static void putAbsent(ImageTagCache.Key key, String tag) {
+        synchronized (absent) {
+            absent.put(new TagKey(key, tag), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return the creation time in epoch millis of the image the given tag pointed to, or {@code null} if unknown
+     */
+    public static Long getCreated(ImageTagCache.Key key, String tag) {
+        Resolved resolved;
+        synchronized (createdDigests) {
+            resolved = createdDigests.get(new TagKey(key, tag));
+        }
+        if (resolved == null || System.currentTimeMillis() - resolved.resolvedAt() >= TAG_CREATED_TTL) {
+            return null;
+        }
+        return getCreated(resolved.digest());
+    }
+
+    /**
+     * @return the creation time in epoch millis of the image of the given manifest, or {@code null} if unknown
+     */
+    public static Long getCreated(String digest) {
+        synchronized (created) {
+            return created.get(digest);
+        }
+    }
+
+    public static void putCreated(ImageTagCache.Key key, String tag, String digest, long createdAt) {
+        synchronized (created) {
+            created.putIfAbsent(digest, createdAt);
+        }
+        synchronized (createdDigests) {
+            createdDigests.put(new TagKey(key, tag), new Resolved(digest, System.currentTimeMillis()));
+        }
+        synchronized (createdFailures) {
+            createdFailures.remove(new TagKey(key, tag));
+        }
+    }
+
+    /**
+     * @return whether resolving the creation time of the given tag failed recently and should not be retried yet
+     */
+    public static boolean isCreatedFailed(ImageTagCache.Key key, String tag) {
+        Long failedAt;
+        synchronized (createdFailures) {
+            failedAt = createdFailures.get(new TagKey(key, tag));
+        }
+        return failedAt != null && System.currentTimeMillis() - failedAt < CREATED_FAILURE_TTL;
+    }
+
+    public static void putCreatedFailure(ImageTagCache.Key key, String tag) {
+        synchronized (createdFailures) {
+            createdFailures.put(new TagKey(key, tag), System.currentTimeMillis());
+        }
+    }
+
+    private static long getTtlMillis() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? TimeUnit.SECONDS.toMillis(config.getTagCacheTtl()) : 0;
+    }
+
+    /**
+     * The metadata of a manifest as reported by the registry.
+     *
+     * @param digest    the content digest, e.g. {@code sha256:...}
+     * @param mediaType the media type, e.g. an OCI image index or a Docker image manifest
+     * @param size      the size of the manifest in bytes, -1 if unknown
+     */
+    public record Manifest(String digest, String mediaType, long size) {
+    }
+
+    private record TagKey(ImageTagCache.Key key, String tag) {
+    }
+
+    private record Resolved(String digest, long resolvedAt) {
+    }
+}
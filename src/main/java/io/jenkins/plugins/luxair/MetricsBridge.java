@@ -0,0 +1,48 @@
+package io.jenkins.plugins.luxair;
+
+import com.codahale.metrics.MetricRegistry;
+import jenkins.metrics.api.Metrics;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards {@link RegistryStats} to the Metrics plugin.
+ * Only instantiated when that optional dependency is installed, so nothing else may reference its classes.
+ */
+final class MetricsBridge {
+
+    private static final String PREFIX = "image-tag-parameter";
+
+    void recordRequest(RegistryStats.Stage stage, String registry, int status, long nanos) {
+        MetricRegistry metrics = Metrics.metricRegistry();
+        metrics.timer(MetricRegistry.name(PREFIX, name(stage))).update(nanos, TimeUnit.NANOSECONDS);
+        metrics.counter(MetricRegistry.name(PREFIX, "requests", host(registry), String.valueOf(status))).inc();
+    }
+
+    void recordStage(RegistryStats.Stage stage, long nanos) {
+        Metrics.metricRegistry().timer(MetricRegistry.name(PREFIX, name(stage))).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordTagCount(int count) {
+        Metrics.metricRegistry().histogram(MetricRegistry.name(PREFIX, "tags")).update(count);
+    }
+
+    void recordCache(String outcome) {
+        Metrics.metricRegistry().meter(MetricRegistry.name(PREFIX, "cache", outcome)).mark();
+    }
+
+    private static String name(RegistryStats.Stage stage) {
+        return stage.name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+    }
+
+    private static String host(String registry) {
+        try {
+            String host = URI.create(registry).getHost();
+            return host != null ? host : registry;
+        } catch (IllegalArgumentException e) {
+            return registry;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.jenkins.plugins.luxair;
+
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Stops sending requests to a registry (or token service) that failed several times in a row, so lookups fail fast,
+ * and are answered from the tag cache, instead of waiting for timeouts of an endpoint that is down.
+ * <p>
+ * After the circuit of a registry opened, a single trial request is let through every {@code openSeconds}. Its
+ * success closes the circuit again.
+ */
+public final class RegistryCircuitBreaker {
+
+    private static final Logger logger = Logger.getLogger(RegistryCircuitBreaker.class.getName());
+    // consecutive failures opening the circuit of a registry
+    private static final int FAILURE_THRESHOLD =
+        SystemProperties.getInteger(RegistryCircuitBreaker.class.getName() + ".failureThreshold", 5);
+    // how long no requests are sent to a registry once its circuit opened
+    private static final long OPEN_DURATION = TimeUnit.SECONDS.toMillis(
+        SystemProperties.getInteger(RegistryCircuitBreaker.class.getName() + ".openSeconds", 30));
+
+    private static final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private RegistryCircuitBreaker() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Checks whether a request may be sent to the given registry. Every granted request must be followed by either
+     * {@link #onResponse} or {@link #release}.
+     *
+     * @return {@code null} if the request may be sent, otherwise the reason why it must not
+     */
+    public static String acquire(String registry) {
+        Circuit circuit = circuits.computeIfAbsent(registry, key -> new Circuit());
+        synchronized (circuit) {
+            if (circuit.failures < FAILURE_THRESHOLD) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            if (circuit.openUntil <= now && !circuit.trial) {
+                logger.fine(() -> "Sending a trial request to " + registry);
+                circuit.trial = true;
+                return null;
+            }
+            return "Registry " + registry + " is unavailable after " + circuit.failures + " failed requests, "
+                + "retrying in " + TimeUnit.MILLISECONDS.toSeconds(Math.max(circuit.openUntil - now, 0) + 999) + " seconds";
+        }
+    }
+
+    /**
+     * Gives back a request granted by {@link #acquire} that was not sent after all.
+     */
+    public static void release(String registry) {
+        Circuit circuit = circuits.get(registry);
+        if (circuit != null) {
+            synchronized (circuit) {
+                circuit.trial = false;
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a request, a status of 0 (no response) or 5xx counts as a failure.
+     */
+    public static void onResponse(String registry, int status) {
+        Circuit circuit = circuits.computeIfAbsent(registry, key -> new Circuit());
+        synchronized (circuit) {
+            circuit.trial = false;
+            if (status != 0 && status < 500) {
+                if (circuit.failures >= FAILURE_THRESHOLD) {
+                    logger.info("Registry " + registry + " is available again");
+                }
+                circuit.failures = 0;
+                return;
+            }
+            circuit.failures++;
+            if (circuit.failures >= FAILURE_THRESHOLD) {
+                if (circuit.failures == FAILURE_THRESHOLD) {
+                    logger.warning("Registry " + registry + " failed " + circuit.failures + " times in a row, "
+                        + "not sending requests for " + TimeUnit.MILLISECONDS.toSeconds(OPEN_DURATION) + " seconds");
+                }
+                circuit.openUntil = System.currentTimeMillis() + OPEN_DURATION;
+            }
+        }
+    }
+
+    /**
+     * @return the state of the circuit of every registry requested so far, ordered by registry
+     */
+    public static List<State> getStates() {
+        List<State> states = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        new TreeMap<>(circuits).forEach((registry, circuit) -> {
+            synchronized (circuit) {
+                boolean open = circuit.failures >= FAILURE_THRESHOLD;
+                states.add(new State(registry, open, circuit.failures,
+                    open ? TimeUnit.MILLISECONDS.toSeconds(Math.max(circuit.openUntil - now, 0)) : 0));
+            }
+        });
+        return states;
+    }
+
+    /**
+     * The circuit of one registry, as shown on the status page.
+     *
+     * @param open            whether requests to the registry are currently held back
+     * @param failures        the number of consecutive failed requests
+     * @param retryInSeconds  the time until the next trial request, if open
+     */
+    public record State(String registry, boolean open, int failures, long retryInSeconds) {
+    }
+
+    private static final class Circuit {
+        private int failures;
+        private long openUntil;
+        private boolean trial;
+    }
+}
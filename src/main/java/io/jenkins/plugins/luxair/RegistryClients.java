@@ -0,0 +1,58 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.init.Terminator;
+import jenkins.util.SystemProperties;
+import kong.unirest.Interceptor;
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Hands out one long-lived {@link UnirestInstance} per registry and SSL verification setting.
+ * <p>
+ * Each instance owns its connection pool, so connections to a registry (and its token service) are kept alive between
+ * lookups and concurrent lookups never reconfigure or shut down a client another thread is using.
+ */
+public final class RegistryClients {
+
+    private static final Logger logger = Logger.getLogger(RegistryClients.class.getName());
+    private static final Interceptor errorInterceptor = new ErrorInterceptor();
+    private static final int MAX_CONNECTIONS =
+        SystemProperties.getInteger(RegistryClients.class.getName() + ".maxConnections", 50);
+    private static final int MAX_CONNECTIONS_PER_ROUTE =
+        SystemProperties.getInteger(RegistryClients.class.getName() + ".maxConnectionsPerRoute", 10);
+
+    private static final Map<Key, UnirestInstance> clients = new ConcurrentHashMap<>();
+
+    private RegistryClients() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static UnirestInstance get(String registry, boolean verifySsl) {
+        return clients.computeIfAbsent(new Key(registry, verifySsl), RegistryClients::create);
+    }
+
+    private static UnirestInstance create(Key key) {
+        logger.fine(() -> "Creating HTTP client for " + key.registry() + " (verifySsl=" + key.verifySsl() + ")");
+        UnirestInstance client = Unirest.spawnInstance();
+        client.config()
+            .enableCookieManagement(false)
+            .interceptor(errorInterceptor)
+            .verifySsl(key.verifySsl())
+            .concurrency(MAX_CONNECTIONS, MAX_CONNECTIONS_PER_ROUTE);
+        return client;
+    }
+
+    @Terminator
+    @SuppressWarnings("unused")
+    public static void shutDown() {
+        clients.values().forEach(UnirestInstance::shutDown);
+        clients.clear();
+    }
+
+    private record Key(String registry, boolean verifySsl) {
+    }
+}
@@ -0,0 +1,115 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import jenkins.util.SystemProperties;
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Sends the (idempotent) requests to the registries and their token services.
+ * <p>
+ * Each request gets the configured connect and read timeouts, waits for {@link RegistryThrottle} and is held back
+ * while the {@link RegistryCircuitBreaker} of its registry is open. Attempts that received no response or a
+ * {@code 502}/{@code 504} are retried with a jittered exponential backoff.
+ */
+public final class RegistryRequests {
+
+    private static final Logger logger = Logger.getLogger(RegistryRequests.class.getName());
+    private static final long RETRY_BASE_DELAY =
+        SystemProperties.getLong(RegistryRequests.class.getName() + ".retryBaseDelayMillis", 250L);
+
+    private RegistryRequests() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Sends a request to the given registry.
+     *
+     * @param registry the registry or token service, requests are throttled and circuit broken per registry
+     * @param stage    the stage the request is recorded with in {@link RegistryStats}
+     * @param request  the request to send, possibly more than once
+     * @param executor sends the request and reads its response
+     * @return the last response received, or the reason why the request was not sent
+     */
+    public static <R extends HttpRequest<R>, T> ResultContainer<HttpResponse<T>> send(
+        String registry, RegistryStats.Stage stage, R request, Function<R, HttpResponse<T>> executor) {
+        ResultContainer<HttpResponse<T>> container = new ResultContainer<>(null);
+        R timed = request
+            .connectTimeout((int) TimeUnit.SECONDS.toMillis(getConnectTimeout()))
+            .socketTimeout((int) TimeUnit.SECONDS.toMillis(getReadTimeout()));
+        int retries = getRetries();
+
+        for (int attempt = 0; ; attempt++) {
+            String unavailable = RegistryCircuitBreaker.acquire(registry);
+            if (unavailable != null) {
+                logger.warning(unavailable);
+                container.setErrorMsg(unavailable);
+                return container;
+            }
+            String throttled = RegistryThrottle.acquire(registry);
+            if (throttled != null) {
+                RegistryCircuitBreaker.release(registry);
+                logger.warning(throttled);
+                container.setErrorMsg(throttled);
+                return container;
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<T> response = executor.apply(timed);
+            int status = response.getStatus();
+            RegistryStats.get().recordRequest(stage, registry, status, start);
+            RegistryThrottle.onResponse(registry, status, response.getHeaders().getFirst("Retry-After"));
+            RegistryCircuitBreaker.onResponse(registry, status);
+            container.setValue(response);
+            if (attempt >= retries || !isRetryable(status)) {
+                return container;
+            }
+
+            long delay = getBackoff(attempt);
+            logger.fine(() -> stage + " of " + registry + " failed with HTTP status " + status + ", retrying in "
+                + delay + " ms");
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return container;
+            }
+        }
+    }
+
+    /**
+     * {@code 429} and {@code 503} are not retried here, {@link RegistryThrottle} holds back requests until the
+     * {@code Retry-After} they came with has passed.
+     */
+    private static boolean isRetryable(int status) {
+        return status == 0 || status == 502 || status == 504;
+    }
+
+    /**
+     * @return a random delay between half and all of the exponential backoff of the given attempt
+     */
+    private static long getBackoff(int attempt) {
+        long backoff = RETRY_BASE_DELAY << Math.min(attempt, 10);
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private static int getConnectTimeout() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? config.getConnectTimeout() : ImageTagParameterConfiguration.DEFAULT_CONNECT_TIMEOUT;
+    }
+
+    private static int getReadTimeout() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? config.getReadTimeout() : ImageTagParameterConfiguration.DEFAULT_READ_TIMEOUT;
+    }
+
+    private static int getRetries() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? config.getRegistryRetries() : 0;
+    }
+}
@@ -0,0 +1,228 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import jenkins.model.Jenkins;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Counts the registry requests and times the stages of the tag lookup, for the status page of
+ * {@link ImageTagParameterConfiguration} and, when installed, the Metrics plugin.
+ */
+public final class RegistryStats {
+
+    private static final Logger logger = Logger.getLogger(RegistryStats.class.getName());
+    private static final RegistryStats INSTANCE = new RegistryStats();
+
+    /**
+     * The stages of a tag lookup, the first five are HTTP requests to the registry or its token service.
+     */
+    public enum Stage {
+        CHALLENGE("Challenge Probe"),
+        TOKEN("Token Fetch"),
+        TAG_LIST("Tag List Fetch"),
+        MANIFEST("Manifest Fetch"),
+        CATALOG("Catalog Fetch"),
+        PARSE("Tag List Parsing"),
+        FILTER("Filtering"),
+        SORT("Ordering");
+
+        public final String value;
+
+        Stage(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return this.value;
+        }
+    }
+
+    private final Map<Stage, Latency> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> requests = new ConcurrentHashMap<>();
+    private final Map<String, Integer> tagCounts = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheStaleHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile MetricsBridge metricsBridge;
+
+    private RegistryStats() {
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, new Latency());
+        }
+    }
+
+    public static RegistryStats get() {
+        return INSTANCE;
+    }
+
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    @SuppressWarnings("unused")
+    public static void enableMetrics() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins != null && jenkins.getPlugin("metrics") != null) {
+            logger.fine("Publishing image tag lookup metrics to the Metrics plugin");
+            INSTANCE.metricsBridge = new MetricsBridge();
+        }
+    }
+
+    /**
+     * Records an HTTP request to a registry or its token service.
+     *
+     * @param status the HTTP status, 0 if no response was received
+     */
+    public void recordRequest(Stage stage, String registry, int status, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        latencies.get(stage).record(nanos);
+        requests.computeIfAbsent(registry, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(status, key -> new LongAdder())
+            .increment();
+        MetricsBridge bridge = metricsBridge;
+        if (bridge != null) {
+            bridge.recordRequest(stage, registry, status, nanos);
+        }
+    }
+
+    public void recordStage(Stage stage, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        latencies.get(stage).record(nanos);
+        MetricsBridge bridge = metricsBridge;
+        if (bridge != null) {
+            bridge.recordStage(stage, nanos);
+        }
+    }
+
+    public void recordTagCount(String registry, String image, int count) {
+        tagCounts.put(registry + "/" + image, count);
+        MetricsBridge bridge = metricsBridge;
+        if (bridge != null) {
+            bridge.recordTagCount(count);
+        }
+    }
+
+    public void recordCacheHit(boolean stale) {
+        (stale ? cacheStaleHits : cacheHits).increment();
+        MetricsBridge bridge = metricsBridge;
+        if (bridge != null) {
+            bridge.recordCache(stale ? "stale" : "hit");
+        }
+    }
+
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+        MetricsBridge bridge = metricsBridge;
+        if (bridge != null) {
+            bridge.recordCache("miss");
+        }
+    }
+
+    public List<StageStats> getStages() {
+        List<StageStats> stages = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            stages.add(latencies.get(stage).snapshot(stage));
+        }
+        return stages;
+    }
+
+    /**
+     * @return the number of requests per registry and HTTP status
+     */
+    public Map<String, Map<Integer, Long>> getRequests() {
+        Map<String, Map<Integer, Long>> snapshot = new TreeMap<>();
+        requests.forEach((registry, statuses) -> {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            snapshot.put(registry, counts);
+        });
+        return snapshot;
+    }
+
+    /**
+     * @return the number of tags received with the last fetch of each repository
+     */
+    public Map<String, Integer> getTagCounts() {
+        return Collections.unmodifiableMap(new TreeMap<>(tagCounts));
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheStaleHits() {
+        return cacheStaleHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return the share of lookups served from the tag cache, fresh or stale, in percent
+     */
+    public long getCacheHitRatio() {
+        long hits = getCacheHits() + getCacheStaleHits();
+        long total = hits + getCacheMisses();
+        return total == 0 ? 0 : hits * 100 / total;
+    }
+
+    /**
+     * A latency histogram with fixed buckets, good enough to tell a slow registry from a slow filter.
+     */
+    private static final class Latency {
+        private static final long[] BUCKETS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, Long.MAX_VALUE};
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS.length);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private void record(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = Arrays.binarySearch(BUCKETS, millis);
+            counts.incrementAndGet(bucket >= 0 ? bucket : -bucket - 1);
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        private StageStats snapshot(Stage stage) {
+            long total = count.sum();
+            long mean = total == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / total);
+            return new StageStats(stage, total, mean, percentile(total, 50), percentile(total, 99));
+        }
+
+        /**
+         * @return the upper bound in milliseconds of the bucket holding the given percentile, -1 if unbounded
+         */
+        private long percentile(long total, int percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (total * percentile + 99) / 100;
+            long seen = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                seen += counts.get(i);
+                if (seen >= threshold) {
+                    return BUCKETS[i] == Long.MAX_VALUE ? -1 : BUCKETS[i];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Latency summary of one stage, the percentiles are bucket upper bounds in milliseconds ({@code -1} if unbounded).
+     */
+    public record StageStats(Stage stage, long count, long meanMillis, long p50Millis, long p99Millis) {
+    }
+}
@@ -0,0 +1,119 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.util.StringUtil;
+import jenkins.util.SystemProperties;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Limits the requests sent to each registry with a token bucket and stops sending any while a registry asked to back
+ * off with {@code 429 Too Many Requests} or {@code 503 Service Unavailable}.
+ */
+public final class RegistryThrottle {
+
+    private static final Logger logger = Logger.getLogger(RegistryThrottle.class.getName());
+    // how long a request may wait for a permit before it is given up
+    private static final long MAX_WAIT = TimeUnit.SECONDS.toMillis(
+        SystemProperties.getInteger(RegistryThrottle.class.getName() + ".maxWaitSeconds", 5));
+    // back off assumed when a registry answers 429/503 without a Retry-After header
+    private static final long DEFAULT_RETRY_AFTER = TimeUnit.SECONDS.toMillis(30);
+
+    private static final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private RegistryThrottle() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Waits for a permit to send a request to the given registry.
+     *
+     * @return {@code null} if the request may be sent, otherwise the reason why it must not
+     */
+    public static String acquire(String registry) {
+        Bucket bucket = buckets.computeIfAbsent(registry, key -> new Bucket());
+        long wait;
+        synchronized (bucket) {
+            long now = System.currentTimeMillis();
+            if (bucket.blockedUntil > now) {
+                return "Registry " + registry + " asked to retry after "
+                    + TimeUnit.MILLISECONDS.toSeconds(bucket.blockedUntil - now + 999) + " seconds";
+            }
+
+            double rate = getRequestsPerSecond();
+            if (rate <= 0) {
+                return null;
+            }
+            // the bucket holds up to one second worth of requests
+            bucket.permits = Math.min(rate, bucket.permits + (now - bucket.refilledAt) * rate / 1000);
+            bucket.refilledAt = now;
+            bucket.permits -= 1;
+            wait = bucket.permits >= 0 ? 0 : (long) Math.ceil(-bucket.permits * 1000 / rate);
+            if (wait > MAX_WAIT) {
+                bucket.permits += 1;
+                return "Request rate limit of " + rate + " per second for registry " + registry + " exceeded";
+            }
+        }
+
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "Interrupted while waiting for the request rate limit of registry " + registry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Honours the {@code Retry-After} header of a {@code 429} or {@code 503} response.
+     */
+    public static void onResponse(String registry, int status, String retryAfter) {
+        if (status != 429 && status != 503) {
+            return;
+        }
+        long delay = parseRetryAfter(retryAfter);
+        logger.warning("Registry " + registry + " answered HTTP " + status + ", backing off for "
+            + TimeUnit.MILLISECONDS.toSeconds(delay) + " seconds");
+        Bucket bucket = buckets.computeIfAbsent(registry, key -> new Bucket());
+        synchronized (bucket) {
+            bucket.blockedUntil = Math.max(bucket.blockedUntil, System.currentTimeMillis() + delay);
+        }
+    }
+
+    private static long parseRetryAfter(String retryAfter) {
+        if (!StringUtil.isNotNullOrEmpty(retryAfter)) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            // not delta-seconds, so it has to be an HTTP date
+        }
+        try {
+            long until = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                .toInstant().toEpochMilli();
+            return Math.max(until - System.currentTimeMillis(), 0);
+        } catch (DateTimeParseException e) {
+            logger.fine("Ignoring unparsable Retry-After: " + retryAfter);
+            return DEFAULT_RETRY_AFTER;
+        }
+    }
+
+    private static double getRequestsPerSecond() {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        return config != null ? config.getRegistryRequestsPerSecond() : 0;
+    }
+
+    private static final class Bucket {
+        private double permits = Double.MAX_VALUE;
+        private long refilledAt = System.currentTimeMillis();
+        private long blockedUntil;
+    }
+}
@@ -0,0 +1,73 @@
+package io.jenkins.plugins.luxair;
+
+import jenkins.util.SystemProperties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the validators ({@code ETag}, {@code Last-Modified}) and tags of every page of the last tag list fetched
+ * per repository, so the next fetch can ask the registry for changed pages only.
+ * <p>
+ * Unlike {@link ImageTagCache} entries, these are kept beyond the tag cache TTL: they are only used to revalidate.
+ */
+public final class TagPageCache {
+
+    private static final int MAX_ENTRIES = SystemProperties.getInteger(TagPageCache.class.getName() + ".maxEntries", 500);
+
+    private static final Map<ImageTagCache.Key, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ImageTagCache.Key, Snapshot> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private TagPageCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static Snapshot get(ImageTagCache.Key key) {
+        synchronized (snapshots) {
+            return snapshots.getOrDefault(key, Snapshot.EMPTY);
+        }
+    }
+
+    public static void put(ImageTagCache.Key key, Snapshot snapshot) {
+        synchronized (snapshots) {
+            snapshots.put(key, snapshot);
+        }
+    }
+
+    /**
+     * One page of a tag list and what is needed to revalidate it.
+     *
+     * @param url          the url the page was requested with
+     * @param etag         the entity tag to send as {@code If-None-Match}, may be empty
+     * @param lastModified the date to send as {@code If-Modified-Since}, may be empty
+     * @param tags         the tags of this page
+     * @param nextUrl      the url of the following page, {@code null} for the last one
+     */
+    public record Page(String url, String etag, String lastModified, List<String> tags, String nextUrl) {
+
+        public boolean hasValidator() {
+            return !etag.isEmpty() || !lastModified.isEmpty();
+        }
+    }
+
+    /**
+     * All pages of a tag list, along with the combined list handed out for them.
+     */
+    public record Snapshot(List<Page> pages, List<String> tags) {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyList());
+
+        public Page findPage(String url) {
+            return pages.stream()
+                .filter(page -> page.url().equals(url))
+                .findFirst()
+                .orElse(null);
+        }
+    }
+}
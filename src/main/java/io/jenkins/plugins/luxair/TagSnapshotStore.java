@@ -0,0 +1,265 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the last tag list successfully fetched per repository in {@code JENKINS_HOME/image-tag-parameter/tags}, so
+ * {@link ImageTagCache} starts hot after a restart and can fall back to it while a registry is unreachable.
+ * <p>
+ * Every repository is stored in its own gzip compressed file, read on the first cache miss only. Writes happen in the
+ * background and are coalesced per repository. Files not written for {@code maxAgeDays}, i.e. of repositories no
+ * longer looked up, are deleted once a day.
+ */
+public final class TagSnapshotStore {
+
+    private static final Logger logger = Logger.getLogger(TagSnapshotStore.class.getName());
+    private static final boolean DISABLED =
+        SystemProperties.getBoolean(TagSnapshotStore.class.getName() + ".disabled", false);
+    private static final String DIRECTORY = "image-tag-parameter/tags";
+    private static final int FORMAT_VERSION = 1;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(
+        SystemProperties.getInteger(TagSnapshotStore.class.getName() + ".maxAgeDays", 30));
+
+    private static final Map<ImageTagCache.Key, Snapshot> pending = new LinkedHashMap<>();
+    private static final ExecutorService writer = createWriter();
+
+    private TagSnapshotStore() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the stored tags of the given repository, or {@code null} if there are none
+     */
+    public static Snapshot load(ImageTagCache.Key key) {
+        File file = getFile(key);
+        if (file == null) {
+            return null;
+        }
+        synchronized (pending) {
+            Snapshot snapshot = pending.get(key);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            new GZIPInputStream(Files.newInputStream(file.toPath()))))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                logger.fine(() -> "Ignoring tag snapshot of " + key + " written in an unknown format");
+                return null;
+            }
+            long fetchedAt = in.readLong();
+            int count = in.readInt();
+            List<String> tags = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tags.add(in.readUTF());
+            }
+            logger.fine(() -> "Loaded " + count + " tags of " + key + " from " + file + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            return new Snapshot(Collections.unmodifiableList(tags), fetchedAt);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to read the tag snapshot of " + key + " from " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the tags of the given repository in the background, replacing any previous snapshot.
+     */
+    public static void save(ImageTagCache.Key key, Snapshot snapshot) {
+        if (getFile(key) == null) {
+            return;
+        }
+        synchronized (pending) {
+            if (pending.put(key, snapshot) != null) {
+                // a write of this repository is already queued, it picks up the latest snapshot
+                return;
+            }
+        }
+        try {
+            writer.execute(() -> write(key));
+        } catch (RejectedExecutionException e) {
+            logger.fine(() -> "Snapshot queue is full, not storing the tags of " + key);
+            synchronized (pending) {
+                pending.remove(key);
+            }
+        }
+    }
+
+    private static void write(ImageTagCache.Key key) {
+        Snapshot snapshot;
+        synchronized (pending) {
+            snapshot = pending.get(key);
+        }
+        while (snapshot != null) {
+            write(key, snapshot);
+            synchronized (pending) {
+                // keep writing while newer snapshots were saved in the meantime
+                snapshot = pending.remove(key, snapshot) ? null : pending.get(key);
+            }
+        }
+    }
+
+    private static void write(ImageTagCache.Key key, Snapshot snapshot) {
+        File file = getFile(key);
+        if (file == null) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Path directory = Files.createDirectories(file.getParentFile().toPath());
+            temp = Files.createTempFile(directory, "snapshot", ".tmp");
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(stream)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(snapshot.fetchedAt());
+                out.writeInt(snapshot.tags().size());
+                for (String tag : snapshot.tags()) {
+                    out.writeUTF(tag);
+                }
+            }
+            // readers never see a partially written snapshot
+            Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+            logger.fine(() -> "Stored " + snapshot.tags().size() + " tags of " + key + " in " + file);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to store the tag snapshot of " + key + " in " + file, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.fine(() -> "Unable to delete " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the snapshots not written for {@code maxAgeDays}.
+     *
+     * @return the number of deleted snapshots
+     */
+    static int prune() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (DISABLED || jenkins == null) {
+            return 0;
+        }
+        File[] files = new File(jenkins.getRootDir(), DIRECTORY).listFiles((dir, name) -> name.endsWith(".gz"));
+        if (files == null) {
+            return 0;
+        }
+        long oldest = System.currentTimeMillis() - MAX_AGE;
+        int deleted = 0;
+        for (File file : files) {
+            if (file.lastModified() < oldest) {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                    deleted++;
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Unable to delete the outdated tag snapshot " + file, e);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * The file of a repository is named after a digest of its key, as the key holds a credential fingerprint.
+     *
+     * @return the snapshot file, or {@code null} if snapshots are disabled or Jenkins is not running
+     */
+    private static File getFile(ImageTagCache.Key key) {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (DISABLED || jenkins == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] {key.registry(), key.image(), key.credential()}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return new File(jenkins.getRootDir(), DIRECTORY + "/" + Util.toHexString(digest.digest()) + ".gz");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static ExecutorService createWriter() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(1000),
+            new NamedThreadFactory(new DaemonThreadFactory(), "TagSnapshotStore writer"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Deletes the snapshots of repositories no longer looked up.
+     */
+    @Extension
+    public static class Pruner extends AsyncPeriodicWork {
+
+        public Pruner() {
+            super("Image tag snapshot pruning");
+        }
+
+        @Override
+        public long getRecurrencePeriod() {
+            return DAY;
+        }
+
+        @Override
+        protected void execute(TaskListener listener) {
+            int deleted = prune();
+            if (deleted > 0) {
+                listener.getLogger().println("Deleted " + deleted + " outdated tag snapshots");
+            }
+        }
+    }
+
+    /**
+     * The tags of a repository as of the time they were fetched from the registry.
+     */
+    public record Snapshot(List<String> tags, long fetchedAt) {
+    }
+}
@@ -0,0 +1,90 @@
+package io.jenkins.plugins.luxair.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable outcome of looking up the tags of one parameter for one request, so concurrent renders of the same
+ * parameter never see each other's tags or errors.
+ */
+public final class TagLookupResult {
+
+    /**
+     * Where the tags of a lookup came from.
+     */
+    public enum Source {
+        /** fetched from the registry by this lookup, or by a concurrent one it joined */
+        REGISTRY,
+        /** served from the tag cache, younger than its TTL */
+        CACHE,
+        /** served from the tag cache past its TTL, while they are refreshed in the background */
+        STALE_CACHE,
+        /** the last known tags, served because the registry failed */
+        FALLBACK,
+        /** no tags could be looked up */
+        NONE
+    }
+
+    private final List<String> tags;
+    private final String errorMsg;
+    private final Source source;
+    private final long fetchedAt;
+
+    public TagLookupResult(List<String> tags, String errorMsg) {
+        this(tags, errorMsg, Source.NONE, 0);
+    }
+
+    /**
+     * @param fetchedAt the time the tags were fetched from the registry in milliseconds since the epoch, 0 if unknown
+     */
+    public TagLookupResult(List<String> tags, String errorMsg, Source source, long fetchedAt) {
+        this.tags = Collections.unmodifiableList(tags);
+        this.errorMsg = errorMsg != null ? errorMsg : "";
+        this.source = source;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public static TagLookupResult of(ResultContainer<List<String>> container) {
+        return new TagLookupResult(container.getValue(), container.getErrorMsg().orElse(""));
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return the error of the lookup, empty if there was none
+     */
+    public String getErrorMsg() {
+        return errorMsg;
+    }
+
+    public boolean hasError() {
+        return !errorMsg.isEmpty();
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * @return the time the tags were fetched from the registry in milliseconds since the epoch, 0 if unknown
+     */
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * @return how long ago the tags were fetched from the registry in milliseconds, 0 if unknown
+     */
+    public long getAgeMillis() {
+        return fetchedAt > 0 ? Math.max(0, System.currentTimeMillis() - fetchedAt) : 0;
+    }
+
+    /**
+     * @return whether the tags may be outdated, as they were cached past their TTL or the registry failed
+     */
+    public boolean isStale() {
+        return source == Source.STALE_CACHE || source == Source.FALLBACK;
+    }
+}
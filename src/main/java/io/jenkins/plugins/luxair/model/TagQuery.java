@@ -0,0 +1,87 @@
+package io.jenkins.plugins.luxair.model;
+
+import io.jenkins.plugins.luxair.util.TagFilter;
+
+import java.util.Objects;
+
+/**
+ * Everything needed to look up the tags offered for one image, with the credential already resolved.
+ */
+public class TagQuery {
+    private final String image;
+    private final String registry;
+    private final TagFilter filter;
+    private final String user;
+    private final String password;
+    private final Ordering ordering;
+    private final boolean verifySsl;
+    private final int maxTags;
+
+    public TagQuery(String image, String registry, TagFilter filter, String user, String password,
+                    Ordering ordering, boolean verifySsl, int maxTags) {
+        this.image = image;
+        this.registry = registry;
+        this.filter = filter;
+        this.user = user;
+        this.password = password;
+        this.ordering = ordering;
+        this.verifySsl = verifySsl;
+        this.maxTags = maxTags;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public String getRegistry() {
+        return registry;
+    }
+
+    public TagFilter getFilter() {
+        return filter;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    public boolean isVerifySsl() {
+        return verifySsl;
+    }
+
+    public int getMaxTags() {
+        return maxTags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TagQuery that = (TagQuery) o;
+
+        return verifySsl == that.verifySsl && maxTags == that.maxTags
+            && image.equals(that.image) && registry.equals(that.registry)
+            && filter.getPattern().equals(that.filter.getPattern())
+            && user.equals(that.user) && password.equals(that.password)
+            && ordering == that.ordering;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(image, registry, filter.getPattern(), user, ordering, verifySsl, maxTags);
+    }
+
+    @Override
+    public String toString() {
+        return "(TagQuery) " + registry + "/" + image + " filter='" + filter + "' ordering=" + ordering.name();
+    }
+}
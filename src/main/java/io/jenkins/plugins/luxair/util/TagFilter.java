@@ -0,0 +1,114 @@
+package io.jenkins.plugins.luxair.util;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A tag filter pattern compiled once, with the same semantics as {@link String#matches(String)}.
+ * <p>
+ * Patterns that only match a literal (optionally preceded and/or followed by {@code .*}) are answered with
+ * {@link String#equals}, {@link String#startsWith}, {@link String#endsWith} or {@link String#contains} instead of
+ * running the regex engine for every tag.
+ */
+public abstract class TagFilter implements Predicate<String> {
+
+    private static final String ANY = ".*";
+    private static final String META_CHARACTERS = "\\.[]{}()*+?^$|";
+
+    private final String pattern;
+
+    private TagFilter(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @throws PatternSyntaxException if the pattern is not a valid regular expression
+     */
+    public static TagFilter compile(String pattern) {
+        if (!StringUtil.isNotNullOrEmpty(pattern) || pattern.equals(ANY)) {
+            return new TagFilter(ANY) {
+                @Override
+                public boolean test(String tag) {
+                    return true;
+                }
+            };
+        }
+
+        boolean leadingAny = pattern.startsWith(ANY);
+        boolean trailingAny = pattern.length() > ANY.length() && pattern.endsWith(ANY) && !pattern.endsWith("\\" + ANY);
+        String literal = toLiteral(pattern.substring(
+            leadingAny ? ANY.length() : 0,
+            trailingAny ? pattern.length() - ANY.length() : pattern.length()));
+        if (literal == null) {
+            Pattern compiled = Pattern.compile(pattern);
+            return new TagFilter(pattern) {
+                @Override
+                public boolean test(String tag) {
+                    return compiled.matcher(tag).matches();
+                }
+            };
+        }
+
+        if (leadingAny && trailingAny) {
+            return new TagFilter(pattern) {
+                @Override
+                public boolean test(String tag) {
+                    return tag.contains(literal);
+                }
+            };
+        } else if (leadingAny) {
+            return new TagFilter(pattern) {
+                @Override
+                public boolean test(String tag) {
+                    return tag.endsWith(literal);
+                }
+            };
+        } else if (trailingAny) {
+            return new TagFilter(pattern) {
+                @Override
+                public boolean test(String tag) {
+                    return tag.startsWith(literal);
+                }
+            };
+        }
+        return new TagFilter(pattern) {
+            @Override
+            public boolean test(String tag) {
+                return tag.equals(literal);
+            }
+        };
+    }
+
+    /**
+     * @return the text matched by the given regex if it contains no regex constructs other than escaped
+     *         punctuation, otherwise {@code null}
+     */
+    private static String toLiteral(String regex) {
+        StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    // \d, \Q, back references and friends
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,102 @@
+package io.jenkins.plugins.luxair.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The filtered and ordered tags of one parameter, searchable by keyword and served page by page, so the build form
+ * only receives the tags it displays.
+ * <p>
+ * The lower case form of every tag is computed once, a search is a single pass over them that keeps the ordering.
+ * Membership checks use a hash set built on first use.
+ */
+public final class TagIndex {
+
+    public static final TagIndex EMPTY = new TagIndex(Collections.emptyList(), Collections.emptyList());
+
+    private final List<String> source;
+    private final List<String> tags;
+    private final String[] lowerCaseTags;
+    private volatile Set<String> tagSet;
+
+    /**
+     * @param source the unfiltered tag list this index was built from
+     * @param tags   the filtered and ordered tags
+     */
+    public TagIndex(List<String> source, List<String> tags) {
+        this.source = source;
+        this.tags = Collections.unmodifiableList(tags);
+        this.lowerCaseTags = new String[tags.size()];
+        for (int i = 0; i < lowerCaseTags.length; i++) {
+            lowerCaseTags[i] = tags.get(i).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * @return whether this index was built from the very same tag list, which is handed out again while unchanged
+     */
+    public boolean isBuiltFrom(List<String> source) {
+        return this.source == source;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public int size() {
+        return tags.size();
+    }
+
+    /**
+     * @return whether the given tag is one of the tags, compared exactly
+     */
+    public boolean contains(String tag) {
+        Set<String> set = tagSet;
+        if (set == null) {
+            // racing threads build equal sets, any of them may be kept
+            set = new HashSet<>(tags);
+            tagSet = set;
+        }
+        return set.contains(tag);
+    }
+
+    /**
+     * Selects a page of the tags containing the given keyword, ignoring case.
+     *
+     * @param keyword the text to search for, all tags match an empty one
+     * @param offset  the number of matching tags to skip
+     * @param limit   the maximum number of tags returned
+     */
+    public Page search(String keyword, int offset, int limit) {
+        offset = Math.max(offset, 0);
+        limit = Math.max(limit, 0);
+        String needle = keyword != null ? keyword.trim().toLowerCase(Locale.ROOT) : "";
+        if (needle.isEmpty()) {
+            int from = Math.min(offset, tags.size());
+            return new Page(tags.subList(from, from + Math.min(limit, tags.size() - from)), tags.size());
+        }
+
+        List<String> matches = new ArrayList<>(Math.min(limit, 256));
+        int total = 0;
+        for (int i = 0; i < lowerCaseTags.length; i++) {
+            if (lowerCaseTags[i].contains(needle)) {
+                if (total >= offset && matches.size() < limit) {
+                    matches.add(tags.get(i));
+                }
+                total++;
+            }
+        }
+        return new Page(matches, total);
+    }
+
+    /**
+     * @param tags  the tags of the requested page
+     * @param total the number of tags matching the keyword on all pages
+     */
+    public record Page(List<String> tags, int total) {
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.luxair.util;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Streams the tags of a {@code /v2/<image>/tags/list} response, or the repositories of a {@code /v2/_catalog}
+ * response, into a consumer without building a JSON tree.
+ */
+public class TagListParser {
+
+    private TagListParser() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the number of tags passed to the consumer
+     */
+    public static int parse(InputStream content, Consumer<String> consumer) throws IOException {
+        return parse(content, "tags", consumer);
+    }
+
+    /**
+     * @param field the name of the string array to read
+     * @return the number of strings passed to the consumer
+     */
+    public static int parse(InputStream content, String field, Consumer<String> consumer) throws IOException {
+        int count = 0;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(field) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    // "name" and friends, or "tags": null for an empty repository
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (reader.peek() == JsonToken.STRING) {
+                        consumer.accept(reader.nextString());
+                        count++;
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,127 @@
+package io.jenkins.plugins.luxair.util;
+
+import hudson.util.VersionNumber;
+
+/**
+ * A tag parsed once for version ordering, comparing exactly like {@link VersionNumber}.
+ * <p>
+ * Most version tags are plain dot separated numbers (e.g. {@code 2.492.3}), those are kept as an array of their
+ * numbers without trailing zeros ({@code 1.0} equals {@code 1} for {@link VersionNumber} as well) and compared
+ * number by number. Any other tag (qualifiers like {@code -rc1}, letters, numbers exceeding a long) falls back to a
+ * {@link VersionNumber}, created once per tag, and so does every comparison involving such a tag.
+ */
+public final class VersionKey implements Comparable<VersionKey> {
+
+    // more digits may exceed a long
+    private static final int MAX_DIGITS = 18;
+
+    private final String tag;
+    private final long[] numbers;
+    private VersionNumber version;
+
+    public VersionKey(String tag) {
+        this.tag = tag;
+        this.numbers = parseNumbers(tag);
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return whether this tag is compared by its numbers instead of as {@link VersionNumber}
+     */
+    public boolean isNumeric() {
+        return numbers != null;
+    }
+
+    @Override
+    public int compareTo(VersionKey other) {
+        if (numbers != null && other.numbers != null) {
+            return compareNumbers(numbers, other.numbers);
+        }
+        return getVersion().compareTo(other.getVersion());
+    }
+
+    private VersionNumber getVersion() {
+        VersionNumber parsed = version;
+        if (parsed == null) {
+            parsed = new VersionNumber(tag);
+            version = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * Both arrays end with a non zero number, so if one is a prefix of the other, the longer one is the greater.
+     */
+    private static int compareNumbers(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    /**
+     * @return the numbers of a tag like {@code 1.2.3} without trailing zeros, {@code null} for any other tag
+     */
+    private static long[] parseNumbers(String tag) {
+        int length = tag.length();
+        if (length == 0) {
+            return null;
+        }
+        int parts = 1;
+        for (int i = 0; i < length; i++) {
+            if (tag.charAt(i) == '.') {
+                parts++;
+            }
+        }
+
+        long[] numbers = new long[parts];
+        int part = 0;
+        int partLength = 0;
+        int significantDigits = 0;
+        long number = 0;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? tag.charAt(i) : '.';
+            if (c == '.') {
+                if (partLength == 0) {
+                    // empty part, e.g. "1..2" or ".1"
+                    return null;
+                }
+                numbers[part++] = number;
+                partLength = 0;
+                significantDigits = 0;
+                number = 0;
+            } else if (c >= '0' && c <= '9') {
+                partLength++;
+                // leading zeros do not count
+                if ((significantDigits > 0 || c != '0') && ++significantDigits > MAX_DIGITS) {
+                    return null;
+                }
+                number = number * 10 + (c - '0');
+            } else {
+                return null;
+            }
+        }
+
+        int significant = parts;
+        while (significant > 0 && numbers[significant - 1] == 0) {
+            significant--;
+        }
+        if (significant == parts) {
+            return numbers;
+        }
+        long[] trimmed = new long[significant];
+        System.arraycopy(numbers, 0, trimmed, 0, significant);
+        return trimmed;
+    }
+
+    @Override
+    public String toString() {
+        return tag;
+    }
+}
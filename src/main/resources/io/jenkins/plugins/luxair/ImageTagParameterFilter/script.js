@@ -1,23 +1,156 @@
 'use strict';
 
+// number of tags requested at once, the server searches and pages through all of them
+const TAG_PAGE_SIZE = 100;
+
 window.addEventListener('DOMContentLoaded', () => {
+    const pendingContainers = new Map();
+
     document.querySelectorAll('.image-tag-parameter-container').forEach((container) => {
         const selectElement = container.querySelector('.image-tag-parameter-select');
         const filterElement = container.querySelector('.image-tag-parameter-filter');
-        const originalOptions = [...selectElement.options]
+        const tagsUrl = container.dataset.tagsUrl;
 
-        filterElement.addEventListener('keyup', () => {
-            const keyword = filterElement.value.trim().toLowerCase();
+        if (!tagsUrl) {
+            // all tags were rendered with the page, filter them right here
+            const originalOptions = [...selectElement.options];
+
+            filterElement.addEventListener('keyup', () => {
+                const keyword = filterElement.value.trim().toLowerCase();
+
+                selectElement.innerHTML = '';
+
+                originalOptions
+                    .filter(option => option.value.toLowerCase().includes(keyword))
+                    .forEach(option => selectElement.appendChild(option));
 
-            selectElement.innerHTML = '';
+                if (selectElement.firstElementChild) {
+                    selectElement.firstElementChild.selected = true;
+                }
+            });
+            return;
+        }
 
-            originalOptions
-                .filter(option => option.value.toLowerCase().includes(keyword))
-                .forEach(option => selectElement.appendChild(option));
+        let searchTimeout;
+        filterElement.addEventListener('keyup', () => {
+            const keyword = filterElement.value.trim();
+            if (keyword === container.keyword) {
+                return;
+            }
+            clearTimeout(searchTimeout);
+            searchTimeout = setTimeout(() => loadTags(tagsUrl, [container], keyword, 0), 250);
+        });
 
-            if (selectElement.firstElementChild) {
-                selectElement.firstElementChild.selected = true;
+        selectElement.addEventListener('change', () => {
+            const selectedOption = selectElement.options[selectElement.selectedIndex];
+            if (selectedOption && selectedOption.dataset.loadMore) {
+                // the "load more" entry is no tag, keep the previous selection while fetching the next page
+                selectElement.value = container.selectedTag;
+                loadTags(tagsUrl, [container], container.keyword, container.loaded);
+            } else {
+                container.selectedTag = selectElement.value;
             }
         });
+
+        container.keyword = '';
+        container.loaded = 0;
+        container.selectedTag = selectElement.value;
+
+        if (!pendingContainers.has(tagsUrl)) {
+            pendingContainers.set(tagsUrl, []);
+        }
+        pendingContainers.get(tagsUrl).push(container);
     });
+
+    // all parameters of a job are fetched with one request, the server looks them up concurrently
+    pendingContainers.forEach((containers, tagsUrl) => loadTags(tagsUrl, containers, '', 0));
 });
+
+function loadTags(tagsUrl, containers, keyword, offset) {
+    const query = containers.map(container => 'name=' + encodeURIComponent(container.dataset.name))
+        .concat('q=' + encodeURIComponent(keyword), 'offset=' + offset, 'limit=' + TAG_PAGE_SIZE)
+        .join('&');
+    // only the response to the latest request of a parameter is rendered, e.g. while typing a keyword
+    const requestIds = new Map(containers.map(container => [container, container.requestId = (container.requestId || 0) + 1]));
+    const isLatest = container => container.requestId === requestIds.get(container);
+    containers.forEach(container => showLoading(container, true));
+
+    return fetch(tagsUrl + '?' + query)
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('HTTP status: ' + response.status);
+            }
+            return response.json();
+        })
+        .then(json => {
+            containers.filter(isLatest).forEach(container => {
+                const data = json.data[container.dataset.name];
+                if (!data) {
+                    return;
+                }
+                renderPage(container, keyword, data);
+                showError(container, data.errorMsg);
+            });
+        })
+        .catch(error => containers.filter(isLatest).forEach(container => showError(container, error.message)))
+        .finally(() => containers.filter(isLatest).forEach(container => showLoading(container, false)));
+}
+
+function renderPage(container, keyword, data) {
+    const {image, defaultTag} = container.dataset;
+    const selectElement = container.querySelector('.image-tag-parameter-select');
+    const append = data.offset > 0;
+
+    selectElement.querySelectorAll('option[data-load-more]').forEach(option => option.remove());
+    if (!append) {
+        selectElement.innerHTML = '';
+        container.loaded = 0;
+        container.defaultTagAdded = false;
+    }
+    container.keyword = keyword;
+
+    let tags = data.tags.slice();
+    if (!append && !keyword && data.hasDefaultTag && !tags.includes(defaultTag)) {
+        // the default tag is not on the first page, offer it anyway
+        tags.unshift(defaultTag);
+        container.defaultTagAdded = true;
+    } else if (append && container.defaultTagAdded) {
+        tags = tags.filter(tag => tag !== defaultTag);
+    }
+    tags.forEach(tag => selectElement.appendChild(new Option(label(image, tag, data.digests), tag, false, tag === defaultTag)));
+    container.loaded += data.tags.length;
+
+    if (container.loaded < data.total) {
+        const loadMore = new Option('... ' + (data.total - container.loaded) + ' more', '');
+        loadMore.dataset.loadMore = 'true';
+        selectElement.appendChild(loadMore);
+    }
+
+    if (append) {
+        selectElement.value = container.selectedTag;
+    } else if (keyword && selectElement.firstElementChild) {
+        selectElement.firstElementChild.selected = true;
+    }
+    container.selectedTag = selectElement.value;
+}
+
+// tags pointing to the same manifest show the same short digest
+function label(image, tag, digests) {
+    const digest = digests && digests[tag];
+    return image + ':' + tag + (digest ? ' (' + digest.replace(/^sha256:/, '').substring(0, 12) + ')' : '');
+}
+
+function showLoading(container, loading) {
+    const loadingElement = container.querySelector('.image-tag-parameter-loading');
+    if (loadingElement) {
+        loadingElement.style.display = loading ? '' : 'none';
+    }
+}
+
+function showError(container, message) {
+    const errorElement = container.parentElement.querySelector('.image-tag-parameter-error');
+    if (errorElement) {
+        errorElement.textContent = message;
+        errorElement.style.display = message ? '' : 'none';
+    }
+}
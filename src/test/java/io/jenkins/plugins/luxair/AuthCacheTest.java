@@ -0,0 +1,77 @@
+package io.jenkins.plugins.luxair;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AuthCacheTest {
+
+    private static final AuthCache.TokenKey KEY =
+        new AuthCache.TokenKey("https://auth.example.com/token", "registry", "repository:app:pull", "");
+
+    @AfterEach
+    void tearDown() {
+        AuthCache.clear();
+    }
+
+    @Test
+    void keepsTokenUntilShortlyBeforeItExpires() {
+        AuthCache.putToken(KEY, "token", System.currentTimeMillis(), 300);
+        assertEquals("token", AuthCache.getToken(KEY));
+    }
+
+    @Test
+    void dropsTokenExpiringWithinTheMargin() {
+        AuthCache.putToken(KEY, "token", System.currentTimeMillis(), 5);
+        assertNull(AuthCache.getToken(KEY));
+    }
+
+    @Test
+    void countsLifetimeFromIssueTime() {
+        long issuedAt = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(295);
+        AuthCache.putToken(KEY, "token", issuedAt, 300);
+        assertNull(AuthCache.getToken(KEY));
+    }
+
+    @Test
+    void ignoresIssueTimeInTheFuture() {
+        // a token service clock running ahead must not extend the lifetime
+        long issuedAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        AuthCache.putToken(KEY, "token", issuedAt, 15);
+        assertEquals("token", AuthCache.getToken(KEY));
+        AuthCache.putToken(KEY, "token", issuedAt, 5);
+        assertNull(AuthCache.getToken(KEY));
+    }
+
+    @Test
+    void assumesDefaultLifetimeWithoutExpiresIn() {
+        AuthCache.putToken(KEY, "token", System.currentTimeMillis(), 0);
+        assertEquals("token", AuthCache.getToken(KEY));
+        AuthCache.putToken(KEY, "token", System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(55), -1);
+        assertNull(AuthCache.getToken(KEY));
+    }
+
+    @Test
+    void separatesTokensByScopeAndCredential() {
+        AuthCache.putToken(KEY, "token", System.currentTimeMillis(), 300);
+        assertNull(AuthCache.getToken(new AuthCache.TokenKey(KEY.realm(), KEY.service(), "repository:other:pull", "")));
+        assertNull(AuthCache.getToken(new AuthCache.TokenKey(KEY.realm(), KEY.service(), KEY.scope(), "fingerprint")));
+    }
+
+    @Test
+    void invalidateForgetsChallengeAndToken() {
+        String[] challenge = {"Bearer", KEY.realm(), KEY.service()};
+        AuthCache.putChallenge("https://registry.example.com", challenge);
+        AuthCache.putToken(KEY, "token", System.currentTimeMillis(), 300);
+        assertArrayEquals(challenge, AuthCache.getChallenge("https://registry.example.com"));
+
+        AuthCache.invalidate("https://registry.example.com", KEY);
+        assertNull(AuthCache.getChallenge("https://registry.example.com"));
+        assertNull(AuthCache.getToken(KEY));
+    }
+}
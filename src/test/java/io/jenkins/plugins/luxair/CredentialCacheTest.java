@@ -0,0 +1,86 @@
+package io.jenkins.plugins.luxair;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.security.ACL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@WithJenkins
+class CredentialCacheTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private StandardUsernamePasswordCredentials credential;
+
+    @BeforeEach
+    void setUp(JenkinsRule j) throws Exception {
+        CredentialCache.clear();
+        credential = new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "registry", "", "user", "secret");
+    }
+
+    @Test
+    void reusesResolvedCredential(JenkinsRule j) {
+        assertSame(credential, CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(credential)));
+        assertSame(credential, CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(credential)));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void separatesCredentialIdsAndAuthentications(JenkinsRule j) {
+        Authentication alice = new UsernamePasswordAuthenticationToken("alice", null);
+        CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(credential));
+        CredentialCache.get(null, ACL.SYSTEM2, "other", lookup(credential));
+        CredentialCache.get(null, alice, "registry", lookup(credential));
+        assertEquals(3, lookups.get());
+
+        CredentialCache.get(null, alice, "registry", lookup(credential));
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    void remembersMissingCredential(JenkinsRule j) {
+        assertNull(CredentialCache.get(null, ACL.SYSTEM2, "missing", lookup(null)));
+        assertNull(CredentialCache.get(null, ACL.SYSTEM2, "missing", lookup(null)));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void clearForcesLookup(JenkinsRule j) {
+        CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(credential));
+        CredentialCache.clear();
+        CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(credential));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void savingSystemCredentialsClearsCache(JenkinsRule j) throws Exception {
+        assertNull(CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(null)));
+
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().add(credential);
+        provider.save();
+
+        assertSame(credential, CredentialCache.get(null, ACL.SYSTEM2, "registry", lookup(credential)));
+        assertEquals(2, lookups.get());
+    }
+
+    private Supplier<StandardUsernamePasswordCredentials> lookup(StandardUsernamePasswordCredentials result) {
+        return () -> {
+            lookups.incrementAndGet();
+            return result;
+        };
+    }
+}
@@ -0,0 +1,468 @@
+package io.jenkins.plugins.luxair;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import io.jenkins.plugins.luxair.util.TagFilter;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process Docker Registry HTTP API v2 serving fixed tag lists, to test lookups without a real registry.
+ * <p>
+ * It challenges with Basic or Bearer authentication (issuing tokens from its own {@code /token} endpoint), paginates
+ * tag lists with {@code Link} headers, revalidates them with ETags and resolves manifests and image configs. Latency,
+ * rate limiting and failures can be injected, and every request is counted per endpoint.
+ */
+final class FakeRegistry implements AutoCloseable {
+
+    enum Auth { NONE, BASIC, BEARER }
+
+    static final String SERVICE = "fake-registry";
+    static final String USER = "user";
+    static final String PASSWORD = "secret";
+
+    private static final Pattern TAGS_PATH = Pattern.compile("^/v2/(.+)/tags/list$");
+    private static final Pattern MANIFEST_PATH = Pattern.compile("^/v2/(.+)/manifests/([^/]+)$");
+    private static final Pattern BLOB_PATH = Pattern.compile("^/v2/(.+)/blobs/([^/]+)$");
+    private static final String MANIFEST_TYPE = "application/vnd.docker.distribution.manifest.v2+json";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Auth auth;
+    private final Map<String, List<String>> repositories = new ConcurrentHashMap<>();
+    private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger served = new AtomicInteger();
+    private volatile int pageSize;
+    private volatile long latencyMillis;
+    private volatile int failEvery;
+    private volatile int failStatus;
+    private volatile CyclicBarrier tagListBarrier;
+
+    private FakeRegistry(HttpServer server, Auth auth) {
+        this.server = server;
+        this.auth = auth;
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    static FakeRegistry start(Auth auth) throws IOException {
+        return new FakeRegistry(HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0), auth);
+    }
+
+    /**
+     * Starts the registry with a freshly generated self-signed certificate, which no client trusts.
+     */
+    static FakeRegistry startHttps(Auth auth) throws IOException {
+        HttpsServer server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(selfSignedContext()));
+        return new FakeRegistry(server, auth);
+    }
+
+    String getUrl() {
+        String scheme = server instanceof HttpsServer ? "https" : "http";
+        return scheme + "://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return a query for all tags of the given image, naturally ordered, with the credential this registry accepts
+     */
+    TagQuery query(String image) {
+        return new TagQuery(image, getUrl(), TagFilter.compile(".*"), USER, PASSWORD, Ordering.NATURAL, true, 0);
+    }
+
+    /**
+     * @return the given number of distinct version tags, {@code 1.0.0}, {@code 1.0.1}, ... {@code 1.0.99}, {@code 1.1.0}
+     */
+    static List<String> tags(int count) {
+        List<String> tags = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tags.add("1." + i / 100 + "." + i % 100);
+        }
+        return tags;
+    }
+
+    FakeRegistry withTags(String image, List<String> tags) {
+        repositories.put(image, List.copyOf(tags));
+        return this;
+    }
+
+    /**
+     * @param pageSize the maximum number of tags per page, regardless of the {@code n} requested, 0 for no limit
+     */
+    FakeRegistry withPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    FakeRegistry withLatency(long millis) {
+        this.latencyMillis = millis;
+        return this;
+    }
+
+    /**
+     * Answers every {@code every}th request with the given status, {@code 429} and {@code 503} with a
+     * {@code Retry-After} of a second.
+     *
+     * @param every 1 to fail all requests, 0 to fail none
+     */
+    FakeRegistry withFailures(int every, int status) {
+        this.failEvery = every;
+        this.failStatus = status;
+        return this;
+    }
+
+    /**
+     * Holds each tag list request until the given number of them are served at the same time, to prove lookups run
+     * concurrently. Requests still waiting after 10 seconds, and all following ones, are answered with {@code 500}.
+     */
+    FakeRegistry withConcurrentTagLists(int count) {
+        this.tagListBarrier = new CyclicBarrier(count);
+        return this;
+    }
+
+    /**
+     * Rejects all tokens issued so far, as if they expired early.
+     */
+    void revokeTokens() {
+        tokens.clear();
+    }
+
+    /**
+     * @param endpoint one of {@code challenge}, {@code token}, {@code tags}, {@code manifests}, {@code blobs},
+     *                 {@code catalog}
+     * @return the number of requests received for the endpoint
+     */
+    int getRequests(String endpoint) {
+        AtomicInteger count = requests.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    int getTotalRequests() {
+        return requests.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    void resetRequests() {
+        requests.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String endpoint = getEndpoint(path);
+            requests.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+            if (latencyMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            }
+            int every = failEvery;
+            if (every > 0 && served.incrementAndGet() % every == 0) {
+                if (failStatus == 429 || failStatus == 503) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                }
+                send(exchange, failStatus, null, null);
+                return;
+            }
+
+            if (endpoint.equals("token")) {
+                handleToken(exchange);
+            } else if (!isAuthorized(exchange)) {
+                challenge(exchange);
+            } else if (endpoint.equals("challenge")) {
+                send(exchange, 200, "application/json", "{}");
+            } else if (endpoint.equals("catalog")) {
+                send(exchange, 200, "application/json", "{\"repositories\":" + toJson(sorted(repositories.keySet())) + "}");
+            } else if (endpoint.equals("tags")) {
+                if (!awaitTagLists()) {
+                    send(exchange, 500, null, null);
+                    return;
+                }
+                handleTags(exchange, matcher(TAGS_PATH, path).group(1));
+            } else if (endpoint.equals("manifests")) {
+                Matcher m = matcher(MANIFEST_PATH, path);
+                handleManifest(exchange, m.group(1), m.group(2));
+            } else if (endpoint.equals("blobs")) {
+                Matcher m = matcher(BLOB_PATH, path);
+                handleBlob(exchange, m.group(1), m.group(2));
+            } else {
+                send(exchange, 404, null, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitTagLists() throws InterruptedException {
+        CyclicBarrier barrier = tagListBarrier;
+        if (barrier == null) {
+            return true;
+        }
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+            return true;
+        } catch (BrokenBarrierException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static String getEndpoint(String path) {
+        if (path.equals("/token")) {
+            return "token";
+        } else if (path.equals("/v2/") || path.equals("/v2")) {
+            return "challenge";
+        } else if (path.equals("/v2/_catalog")) {
+            return "catalog";
+        } else if (TAGS_PATH.matcher(path).matches()) {
+            return "tags";
+        } else if (MANIFEST_PATH.matcher(path).matches()) {
+            return "manifests";
+        } else if (BLOB_PATH.matcher(path).matches()) {
+            return "blobs";
+        }
+        return "other";
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        return switch (auth) {
+            case NONE -> true;
+            case BASIC -> basicAuthorization().equals(authorization);
+            case BEARER -> authorization != null && authorization.startsWith("Bearer ")
+                && tokens.contains(authorization.substring("Bearer ".length()));
+        };
+    }
+
+    private void challenge(HttpExchange exchange) throws IOException {
+        String challenge = auth == Auth.BASIC
+            ? "Basic realm=\"" + SERVICE + "\""
+            : "Bearer realm=\"" + getUrl() + "/token\",service=\"" + SERVICE + "\"";
+        exchange.getResponseHeaders().set("Www-Authenticate", challenge);
+        send(exchange, 401, "application/json", "{\"errors\":[{\"code\":\"UNAUTHORIZED\"}]}");
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (!SERVICE.equals(query.get("service")) || authorization != null && !basicAuthorization().equals(authorization)) {
+            send(exchange, 401, "application/json", "{\"errors\":[{\"code\":\"UNAUTHORIZED\"}]}");
+            return;
+        }
+        String token = "token-" + tokens.size() + "-" + System.nanoTime();
+        tokens.add(token);
+        send(exchange, 200, "application/json", "{\"token\":\"" + token + "\",\"expires_in\":300,\"issued_at\":\""
+            + Instant.now() + "\"}");
+    }
+
+    private void handleTags(HttpExchange exchange, String image) throws IOException {
+        List<String> tags = repositories.get(image);
+        if (tags == null) {
+            send(exchange, 404, "application/json", "{\"errors\":[{\"code\":\"NAME_UNKNOWN\"}]}");
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int limit = query.containsKey("n") ? Integer.parseInt(query.get("n")) : tags.size();
+        if (pageSize > 0) {
+            limit = Math.min(limit, pageSize);
+        }
+        int from = 0;
+        if (query.containsKey("last")) {
+            from = tags.indexOf(query.get("last")) + 1;
+        }
+        int to = Math.min(from + Math.max(limit, 0), tags.size());
+        List<String> page = tags.subList(from, to);
+
+        String body = "{\"name\":\"" + image + "\",\"tags\":" + toJson(page) + "}";
+        String etag = "\"" + sha256(body) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (to < tags.size()) {
+            exchange.getResponseHeaders().set("Link", "</v2/" + image + "/tags/list?n=" + limit + "&last="
+                + tags.get(to - 1) + ">; rel=\"next\"");
+        }
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            send(exchange, 304, null, null);
+            return;
+        }
+        send(exchange, 200, "application/json", body);
+    }
+
+    private void handleManifest(HttpExchange exchange, String image, String tag) throws IOException {
+        List<String> tags = repositories.get(image);
+        if (tags == null || !tags.contains(tag)) {
+            send(exchange, 404, "application/json", "{\"errors\":[{\"code\":\"MANIFEST_UNKNOWN\"}]}");
+            return;
+        }
+        String config = "sha256:" + sha256("config:" + image + ":" + tag);
+        String body = "{\"schemaVersion\":2,\"mediaType\":\"" + MANIFEST_TYPE + "\",\"config\":{\"digest\":\""
+            + config + "\"}}";
+        exchange.getResponseHeaders().set("Docker-Content-Digest", "sha256:" + sha256(body));
+        send(exchange, 200, MANIFEST_TYPE, body);
+    }
+
+    /**
+     * The image config of the n-th tag of a repository was created n minutes after the epoch, so later tags are newer.
+     */
+    private void handleBlob(HttpExchange exchange, String image, String digest) throws IOException {
+        List<String> tags = repositories.getOrDefault(image, List.of());
+        for (int i = 0; i < tags.size(); i++) {
+            if (digest.equals("sha256:" + sha256("config:" + image + ":" + tags.get(i)))) {
+                send(exchange, 200, "application/json", "{\"created\":\""
+                    + Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(i)) + "\"}");
+                return;
+            }
+        }
+        send(exchange, 404, "application/json", "{\"errors\":[{\"code\":\"BLOB_UNKNOWN\"}]}");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        if (head || bytes.length == 0) {
+            if (head) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(bytes.length));
+            }
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String basicAuthorization() {
+        return "Basic " + Base64.getEncoder().encodeToString((USER + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Matcher matcher(Pattern pattern, String path) {
+        Matcher m = pattern.matcher(path);
+        if (!m.matches()) {
+            throw new IllegalArgumentException(path);
+        }
+        return m;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static List<String> sorted(Set<String> names) {
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private static String toJson(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            json.append(i > 0 ? ",\"" : "\"").append(values.get(i)).append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String sha256(String value) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates a key pair and self-signed certificate for 127.0.0.1 with the {@code keytool} of the running JDK.
+     */
+    private static SSLContext selfSignedContext() throws IOException {
+        File directory = Files.createTempDirectory("fake-registry").toFile();
+        File keyStore = new File(directory, "registry.p12");
+        char[] password = "changeit".toCharArray();
+        try {
+            String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+            Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "registry", "-keyalg", "RSA",
+                "-keysize", "2048", "-validity", "1", "-dname", "CN=127.0.0.1", "-ext", "SAN=ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", keyStore.getPath(), "-storepass", new String(password))
+                .redirectErrorStream(true)
+                .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                throw new IOException("keytool failed: " + output);
+            }
+
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(keyStore.toPath())) {
+                store.load(in, password);
+            }
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(store, password);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keyManagers.getKeyManagers(), null, null);
+            return context;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unable to create a self-signed certificate", e);
+        } finally {
+            keyStore.delete();
+            directory.delete();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagLookupResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WithJenkins
+class ImageTagCacheTest {
+
+    private static final List<String> CACHED = List.of("1.0", "1.1");
+    private static final List<String> FETCHED = List.of("1.0", "1.1", "1.2");
+
+    private final ImageTagCache cache = ImageTagCache.get();
+    private final AtomicInteger loads = new AtomicInteger();
+    private ImageTagCache.Key key;
+
+    @BeforeEach
+    void setUp(JenkinsRule j, TestInfo info) {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+        key = new ImageTagCache.Key("https://registry.example.com", info.getDisplayName(), "");
+    }
+
+    @Test
+    void loadsMissingTags() {
+        ResultContainer<List<String>> tags = cache.get(key, loader(FETCHED));
+        assertEquals(FETCHED, tags.getValue());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void servesFreshTagsWithoutLoading() {
+        cache.put(key, CACHED, System.currentTimeMillis());
+        ResultContainer<List<String>> tags = cache.get(key, loader(FETCHED));
+        assertSame(CACHED, tags.getValue());
+        assertFalse(tags.getErrorMsg().isPresent());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void servesStaleTagsAndRefreshesInBackground() throws Exception {
+        cache.put(key, CACHED, System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(90));
+        CountDownLatch refreshed = new CountDownLatch(1);
+        ResultContainer<List<String>> tags = cache.get(key, () -> {
+            loads.incrementAndGet();
+            refreshed.countDown();
+            return new ResultContainer<>(FETCHED);
+        });
+        assertSame(CACHED, tags.getValue());
+
+        assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+        // the refresh stores the tags right after the loader returned
+        for (int i = 0; i < 100 && cache.get(key, loader(FETCHED)).getValue() != FETCHED; i++) {
+            Thread.sleep(50);
+        }
+        assertSame(FETCHED, cache.get(key, loader(FETCHED)).getValue());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadsExpiredTags() {
+        cache.put(key, CACHED, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(11));
+        ResultContainer<List<String>> tags = cache.get(key, loader(FETCHED));
+        assertSame(FETCHED, tags.getValue());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void fallsBackToExpiredTagsWhenLoadingFails() {
+        cache.put(key, CACHED, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(11));
+        ResultContainer<List<String>> tags = cache.get(key, () -> {
+            loads.incrementAndGet();
+            ResultContainer<List<String>> failed = new ResultContainer<>(List.of());
+            failed.setErrorMsg("HTTP status: Service Unavailable");
+            return failed;
+        });
+        assertSame(CACHED, tags.getValue());
+        assertTrue(tags.getErrorMsg().orElse("").startsWith("HTTP status: Service Unavailable (showing tags cached as of "),
+            tags.getErrorMsg().orElse(""));
+
+        // failures are not cached
+        assertSame(FETCHED, cache.get(key, loader(FETCHED)).getValue());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void reportsWhereTagsCameFrom() {
+        long fetchedAt = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(90);
+        cache.put(key, CACHED, fetchedAt);
+        ImageTagCache.Lookup stale = cache.lookUp(key, loader(CACHED));
+        assertEquals(TagLookupResult.Source.STALE_CACHE, stale.source());
+        assertEquals(fetchedAt, stale.fetchedAt());
+
+        long now = System.currentTimeMillis();
+        cache.put(key, CACHED, now);
+        ImageTagCache.Lookup fresh = cache.lookUp(key, loader(FETCHED));
+        assertEquals(TagLookupResult.Source.CACHE, fresh.source());
+        assertEquals(now, fresh.fetchedAt());
+
+        cache.invalidate(key);
+        ImageTagCache.Lookup fetched = cache.lookUp(key, loader(FETCHED));
+        assertEquals(TagLookupResult.Source.REGISTRY, fetched.source());
+        assertTrue(fetched.fetchedAt() >= now);
+    }
+
+    @Test
+    void reportsFallbackAndFailure() {
+        Supplier<ResultContainer<List<String>>> failing = () -> {
+            ResultContainer<List<String>> failed = new ResultContainer<>(List.of());
+            failed.setErrorMsg("HTTP status: Service Unavailable");
+            return failed;
+        };
+        ImageTagCache.Lookup failed = cache.lookUp(key, failing);
+        assertEquals(TagLookupResult.Source.NONE, failed.source());
+        assertEquals(0, failed.fetchedAt());
+
+        long fetchedAt = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(11);
+        cache.put(key, CACHED, fetchedAt);
+        ImageTagCache.Lookup fallback = cache.lookUp(key, failing);
+        assertEquals(TagLookupResult.Source.FALLBACK, fallback.source());
+        assertEquals(fetchedAt, fallback.fetchedAt());
+        assertSame(CACHED, fallback.tags().getValue());
+    }
+
+    @Test
+    void coalescesConcurrentLoads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResultContainer<List<String>>> slowLoader = () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ResultContainer<>(FETCHED);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResultContainer<List<String>>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(key, slowLoader)));
+            }
+            // let all of them reach the cache before the first load completes
+            Thread.sleep(500);
+            release.countDown();
+            for (Future<ResultContainer<List<String>>> result : results) {
+                assertEquals(FETCHED, result.get(10, TimeUnit.SECONDS).getValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+        cache.get(key, loader(FETCHED));
+        cache.get(key, loader(FETCHED));
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<ResultContainer<List<String>>> loader(List<String> tags) {
+        return () -> {
+            loads.incrementAndGet();
+            return new ResultContainer<>(tags);
+        };
+    }
+}
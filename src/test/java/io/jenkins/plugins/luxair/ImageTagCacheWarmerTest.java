@@ -0,0 +1,93 @@
+package io.jenkins.plugins.luxair;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersDefinitionProperty;
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.TagLookupResult;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@WithJenkins
+class ImageTagCacheWarmerTest {
+
+    private static final List<String> TAGS = List.of("1.0", "1.1");
+
+    @Test
+    void warmsUpTagsOfSavedJob(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        config.setTagCacheTtl(60);
+        config.setWarmUpTagCache(true);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", TAGS)) {
+            ImageTagParameterDefinition definition = addParameter(j.createFreeStyleProject("deploy"), registry);
+            awaitWarmUp(registry);
+
+            TagLookupResult result = definition.lookup();
+            assertEquals(TagLookupResult.Source.CACHE, result.getSource());
+            assertEquals(1, registry.getRequests("tags"));
+        }
+    }
+
+    @Test
+    void warmsUpAllJobsAtStartup(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        config.setTagCacheTtl(60);
+        config.setWarmUpTagCache(false);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", TAGS)) {
+            ImageTagParameterDefinition definition = addParameter(j.createFreeStyleProject("deploy"), registry);
+
+            config.setWarmUpTagCache(true);
+            ImageTagCacheWarmer.warmUpAtStartup();
+            awaitWarmUp(registry);
+
+            assertEquals(TagLookupResult.Source.CACHE, definition.lookup().getSource());
+        }
+    }
+
+    @Test
+    void doesNotWarmUpWhenDisabled(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        config.setTagCacheTtl(60);
+        config.setWarmUpTagCache(false);
+
+        try (FakeRegistry disabled = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", TAGS);
+             FakeRegistry enabled = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", TAGS)) {
+            addParameter(j.createFreeStyleProject("disabled"), disabled);
+
+            // warm-ups run one after the other, so a warm-up of the first job would have run by now
+            config.setWarmUpTagCache(true);
+            addParameter(j.createFreeStyleProject("enabled"), enabled);
+            awaitWarmUp(enabled);
+
+            assertEquals(0, disabled.getTotalRequests());
+        }
+    }
+
+    /**
+     * Adds a parameter offering the tags of the given registry to the job, saving it.
+     */
+    private static ImageTagParameterDefinition addParameter(FreeStyleProject job, FakeRegistry registry)
+        throws Exception {
+        ImageTagParameterDefinition definition = new ImageTagParameterDefinition("TAG", "", "app", ".*", "",
+            registry.getUrl(), "", Ordering.NATURAL);
+        job.addProperty(new ParametersDefinitionProperty(definition));
+        return definition;
+    }
+
+    private static void awaitWarmUp(FakeRegistry registry) throws InterruptedException {
+        ImageTagCache.Key key = new ImageTagCache.Key(registry.getUrl(), "app", "");
+        for (int i = 0; i < 200; i++) {
+            if (ImageTagCache.get().peek(key) != null) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Tags of " + registry.getUrl() + " were not warmed up");
+    }
+}
@@ -0,0 +1,201 @@
+package io.jenkins.plugins.luxair;
+
+import com.cloudbees.hudson.plugins.folder.Folder;
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.cloudbees.plugins.credentials.domains.Domain;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.TagLookupResult;
+import net.sf.json.JSONObject;
+import org.htmlunit.Page;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WithJenkins
+class ImageTagParameterDefinitionTest {
+
+    @Test
+    void concurrentLookupsDoNotShareErrors(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+        List<String> tags = FakeRegistry.tags(50);
+
+        try (FakeRegistry succeeding = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", tags);
+             FakeRegistry failing = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", tags)
+                 .withFailures(1, 500)) {
+            ImageTagParameterDefinition good = definition(succeeding);
+            ImageTagParameterDefinition bad = definition(failing);
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<TagLookupResult>> goodResults = new ArrayList<>();
+                List<Future<TagLookupResult>> badResults = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    goodResults.add(executor.submit((Callable<TagLookupResult>) good::lookup));
+                    badResults.add(executor.submit((Callable<TagLookupResult>) bad::lookup));
+                }
+                for (Future<TagLookupResult> future : goodResults) {
+                    TagLookupResult result = future.get(1, TimeUnit.MINUTES);
+                    assertFalse(result.hasError(), result.getErrorMsg());
+                    assertEquals(tags.size(), result.getTags().size());
+                }
+                for (Future<TagLookupResult> future : badResults) {
+                    TagLookupResult result = future.get(1, TimeUnit.MINUTES);
+                    assertTrue(result.hasError());
+                    assertTrue(result.getTags().isEmpty());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // the parameters themselves hold no outcome of a lookup
+            assertEquals("", good.getErrorMsg());
+            assertEquals("", bad.getErrorMsg());
+        }
+    }
+
+    @Test
+    void lookupReportsAgeOfTags(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0"))) {
+            ImageTagParameterDefinition definition = definition(registry);
+            TagLookupResult fetched = definition.lookup();
+            assertEquals(TagLookupResult.Source.REGISTRY, fetched.getSource());
+            assertFalse(fetched.isStale());
+
+            TagLookupResult cached = definition.lookup();
+            assertEquals(TagLookupResult.Source.CACHE, cached.getSource());
+            assertEquals(fetched.getFetchedAt(), cached.getFetchedAt());
+            assertEquals(1, registry.getRequests("tags"));
+
+            TagLookupResult invalid = new ImageTagParameterDefinition("TAG", "", "app", "[", "", registry.getUrl(), "",
+                Ordering.NATURAL).lookup();
+            assertEquals(TagLookupResult.Source.NONE, invalid.getSource());
+            assertEquals(0, invalid.getAgeMillis());
+        }
+    }
+
+    private static ImageTagParameterDefinition definition(FakeRegistry registry) {
+        return new ImageTagParameterDefinition("TAG", "", "app", ".*", "", registry.getUrl(), "", Ordering.NATURAL);
+    }
+
+    @Test
+    void acceptsExistingTag(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0", "1.1"))) {
+            ImageTagParameterDefinition definition = validating(j.createFreeStyleProject("deploy"), registry, "");
+            assertEquals("1.1", ((ImageTagParameterValue) definition.createValue("1.1")).getImageTag());
+            // nothing cached yet, only the manifest of the tag is requested
+            assertEquals(0, registry.getRequests("tags"));
+            assertEquals(1, registry.getRequests("manifests"));
+
+            definition.lookup();
+            assertEquals("1.0", ((ImageTagParameterValue) definition.createValue("1.0")).getImageTag());
+            assertEquals(1, registry.getRequests("manifests"));
+        }
+    }
+
+    @Test
+    void rejectsMissingTag(JenkinsRule j) throws Exception {
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0"))) {
+            ImageTagParameterDefinition definition = validating(j.createFreeStyleProject("deploy"), registry, "");
+            assertThrows(IllegalArgumentException.class, () -> definition.createValue("2.0"));
+            assertThrows(IllegalArgumentException.class, () -> definition.createValue("2.0"));
+            assertThrows(IllegalArgumentException.class, () -> definition.createValue(""));
+            // the missing tag is remembered
+            assertEquals(1, registry.getRequests("manifests"));
+        }
+    }
+
+    @Test
+    void acceptsTagWhileRegistryIsDown(JenkinsRule j) throws Exception {
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0"))
+            .withFailures(1, 500)) {
+            ImageTagParameterDefinition definition = validating(j.createFreeStyleProject("deploy"), registry, "");
+            assertEquals("2.0", ((ImageTagParameterValue) definition.createValue("2.0")).getImageTag());
+        }
+    }
+
+    @Test
+    void validatesWithCredentialOfFolder(JenkinsRule j) throws Exception {
+        Folder folder = j.jenkins.createProject(Folder.class, "team");
+        for (CredentialsStore store : CredentialsProvider.lookupStores(folder)) {
+            if (store.getContext() == folder) {
+                store.addCredentials(Domain.global(), new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL,
+                    "team-registry", "", FakeRegistry.USER, FakeRegistry.PASSWORD));
+            }
+        }
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BASIC).withTags("app", List.of("1.0"))) {
+            FreeStyleProject job = folder.createProject(FreeStyleProject.class, "deploy");
+            ImageTagParameterDefinition definition = validating(job, registry, "team-registry");
+            // created outside of a request, like a build triggered via the CLI or by an upstream job
+            assertEquals("1.0", ((ImageTagParameterValue) definition.createValue("1.0")).getImageTag());
+            assertThrows(IllegalArgumentException.class, () -> definition.createValue("2.0"));
+        }
+    }
+
+    @Test
+    void tagsEndpointResolvesDigestsOfEveryParameter(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE)
+            .withTags("app", List.of("1.0", "1.1")).withTags("db", List.of("2.0"))) {
+            List<ParameterDefinition> definitions = new ArrayList<>();
+            for (String image : List.of("app", "db")) {
+                ImageTagParameterDefinition definition = new ImageTagParameterDefinition(image.toUpperCase(Locale.ROOT),
+                    "", image, ".*", "", registry.getUrl(), "", Ordering.NATURAL);
+                definition.setResolveDigest(true);
+                definitions.add(definition);
+            }
+            definitions.add(new ImageTagParameterDefinition("PLAIN", "", "app", ".*", "", registry.getUrl(), "",
+                Ordering.NATURAL));
+            FreeStyleProject job = j.createFreeStyleProject("deploy");
+            job.addProperty(new ParametersDefinitionProperty(definitions));
+
+            Page page = j.createWebClient().goTo(job.getUrl() + "descriptorByName/"
+                + ImageTagParameterDefinition.class.getName() + "/tags?name=APP&name=DB&name=PLAIN", "application/json");
+            JSONObject data = JSONObject.fromObject(page.getWebResponse().getContentAsString());
+
+            assertEquals(Set.of("1.0", "1.1"), data.getJSONObject("APP").getJSONObject("digests").keySet());
+            assertEquals(Set.of("2.0"), data.getJSONObject("DB").getJSONObject("digests").keySet());
+            assertTrue(data.getJSONObject("PLAIN").getJSONObject("digests").isEmpty());
+            assertTrue(data.getJSONObject("DB").getJSONObject("digests").getString("2.0").startsWith("sha256:"));
+            assertEquals(3, registry.getRequests("manifests"));
+        }
+    }
+
+    /**
+     * @return a parameter validating its tags, defined in the given job
+     */
+    private static ImageTagParameterDefinition validating(FreeStyleProject job, FakeRegistry registry,
+                                                          String credentialId) throws Exception {
+        ImageTagParameterDefinition definition = new ImageTagParameterDefinition("TAG", "", "app", ".*", "",
+            registry.getUrl(), credentialId, Ordering.NATURAL);
+        definition.setValidateTag(true);
+        job.addProperty(new ParametersDefinitionProperty(definition));
+        return definition;
+    }
+}
@@ -0,0 +1,273 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import io.jenkins.plugins.luxair.util.TagFilter;
+import io.jenkins.plugins.luxair.util.TagIndex;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WithJenkins
+class ImageTagTest {
+
+    private static final String PAGE = "https://registry.example.com/v2/app/tags/list?n=2";
+
+    @Test
+    void nextPageUrlIsResolvedAgainstThePage() {
+        assertEquals("https://registry.example.com/v2/app/tags/list?n=2&last=b",
+            ImageTag.getNextPageUrl(PAGE, "</v2/app/tags/list?n=2&last=b>; rel=\"next\""));
+        assertEquals("https://other.example.com/v2/app/tags/list?last=b",
+            ImageTag.getNextPageUrl(PAGE, "<https://other.example.com/v2/app/tags/list?last=b>; rel=next"));
+        assertEquals("https://registry.example.com/v2/app/tags/list?last=d",
+            ImageTag.getNextPageUrl(PAGE,
+                "</v2/app/tags/list?last=a>; rel=\"prev\", </v2/app/tags/list?last=d>; rel=\"next\""));
+    }
+
+    @Test
+    void lastPageHasNoNextPageUrl() {
+        assertNull(ImageTag.getNextPageUrl(PAGE, null));
+        assertNull(ImageTag.getNextPageUrl(PAGE, ""));
+        assertNull(ImageTag.getNextPageUrl(PAGE, "</v2/app/tags/list?last=a>; rel=\"prev\""));
+        assertNull(ImageTag.getNextPageUrl(PAGE, "<http://exa mple.com/x>; rel=\"next\""));
+    }
+
+    @Test
+    void topTagsMatchTheStartOfAFullSort() {
+        List<String> tags = List.of("bb", "a", "cc", "d", "ee", "f");
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        List<String> sorted = ImageTag.sortTopN(tags, byLength, 0);
+        assertEquals(List.of("a", "d", "f", "bb", "cc", "ee"), sorted);
+        for (int limit = 1; limit < tags.size(); limit++) {
+            // ties keep their order, whether the heap or the full sort is used
+            assertEquals(sorted.subList(0, limit), ImageTag.sortTopN(tags, byLength, limit), "limit " + limit);
+        }
+    }
+
+    @Test
+    void limitBeyondTheTagsReturnsAllOfThem() {
+        List<String> tags = List.of("1.2", "1.0", "1.1");
+        assertEquals(List.of("1.0", "1.1", "1.2"), ImageTag.sortTopN(tags, Comparator.naturalOrder(), 3));
+        assertEquals(List.of("1.0", "1.1", "1.2"), ImageTag.sortTopN(tags, Comparator.naturalOrder(), 10));
+        assertEquals(List.of(), ImageTag.sortTopN(List.<String>of(), Comparator.naturalOrder(), 10));
+    }
+
+    @Test
+    void maxTagsKeepsTheFirstTagsOfTheOrdering() {
+        List<String> tags = List.of("1.10", "1.2", "2.0", "1.02", "0.9", "1.9");
+        assertEquals(List.of("2.0", "1.10", "1.9"), ordered(tags, Ordering.DSC_VERSION, 3));
+        assertEquals(List.of("0.9", "1.2", "1.02"), ordered(tags, Ordering.ASC_VERSION, 3));
+        // 1.2 and 1.02 are the same version, listed in the order the registry returned them
+        assertEquals(List.of("0.9", "1.2"), ordered(tags, Ordering.ASC_VERSION, 2));
+        assertEquals(List.of("2.0", "1.10", "1.9", "1.2", "1.02", "0.9"), ordered(tags, Ordering.DSC_VERSION, 0));
+        assertEquals(List.of("2.0", "1.10", "1.9", "1.2", "1.02", "0.9"), ordered(tags, Ordering.DSC_VERSION, 100));
+        assertEquals(List.of("0.9", "1.02"), ordered(tags, Ordering.REV_NATURAL, 2));
+        assertEquals(List.of("2.0", "1.9"), ordered(tags, Ordering.NATURAL, 2));
+    }
+
+    private static List<String> ordered(List<String> tags, Ordering ordering, int maxTags) {
+        TagQuery query = new TagQuery("app", "https://registry.example.com", TagFilter.compile(".*"), "", "",
+            ordering, true, maxTags);
+        ResultContainer<List<String>> result = ImageTag.filterTags(tags, query);
+        assertFalse(result.getErrorMsg().isPresent(), () -> result.getErrorMsg().get());
+        return result.getValue();
+    }
+
+    @Test
+    void unchangedPagesReuseTheTagList(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        config.setTagCacheTtl(0);
+        config.setTagPageSize(2);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER)
+            .withTags("app", List.of("1.0", "1.1", "1.2", "1.3", "1.4"))) {
+            ResultContainer<List<String>> first = ImageTag.getTags(registry.query("app"));
+            assertFalse(first.getErrorMsg().isPresent());
+            assertEquals(List.of("1.4", "1.3", "1.2", "1.1", "1.0"), first.getValue());
+            assertEquals(3, registry.getRequests("tags"));
+
+            ResultContainer<List<String>> second = ImageTag.getTags(registry.query("app"));
+            assertSame(first.getValue(), second.getValue());
+            assertEquals(6, registry.getRequests("tags"));
+            Map<Integer, Long> statuses = RegistryStats.get().getRequests().get(registry.getUrl());
+            assertEquals(3L, statuses.get(304));
+
+            registry.withTags("app", List.of("1.0", "1.1", "1.2", "1.3", "1.4", "1.5"));
+            ResultContainer<List<String>> third = ImageTag.getTags(registry.query("app"));
+            assertNotSame(first.getValue(), third.getValue());
+            assertEquals(6, third.getValue().size());
+        }
+    }
+
+    @Test
+    void batchLookupRunsConcurrentlyAndKeepsOrder(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+
+        // each tag list is only served once all four are requested at the same time
+        try (FakeRegistry good = FakeRegistry.start(FakeRegistry.Auth.NONE).withConcurrentTagLists(4);
+             FakeRegistry bad = FakeRegistry.start(FakeRegistry.Auth.NONE).withFailures(1, 500)) {
+            for (String image : List.of("a", "b", "c", "d")) {
+                good.withTags(image, List.of(image + "-1.0"));
+                bad.withTags(image, List.of(image + "-1.0"));
+            }
+            List<TagQuery> queries = List.of(good.query("c"), bad.query("a"), good.query("a"), good.query("d"),
+                bad.query("b"), good.query("b"), good.query("c"));
+
+            Map<TagQuery, ResultContainer<TagIndex>> results = ImageTag.getTagIndexes(queries);
+
+            assertEquals(List.of(good.query("c"), bad.query("a"), good.query("a"), good.query("d"), bad.query("b"),
+                good.query("b")), List.copyOf(results.keySet()));
+            results.forEach((query, result) -> {
+                if (query.getRegistry().equals(bad.getUrl())) {
+                    assertTrue(result.getErrorMsg().isPresent(), query::toString);
+                    assertTrue(result.getValue().getTags().isEmpty());
+                } else {
+                    assertFalse(result.getErrorMsg().isPresent(), () -> result.getErrorMsg().get());
+                    assertEquals(List.of(query.getImage() + "-1.0"), result.getValue().getTags());
+                }
+            });
+            assertEquals(4, good.getRequests("tags"));
+            // the registry is probed once for the whole batch
+            assertEquals(1, good.getRequests("challenge"));
+        }
+    }
+
+    @Test
+    void manifestsOfSeveralImagesAreResolvedAndCached(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER)
+            .withTags("app", List.of("1.0", "1.1")).withTags("db", List.of("2.0"));
+             FakeRegistry bad = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0"))
+                 .withFailures(1, 500)) {
+            Map<TagQuery, List<String>> tags = new LinkedHashMap<>();
+            tags.put(registry.query("db"), List.of("2.0", "2.1"));
+            tags.put(bad.query("app"), List.of("1.0"));
+            tags.put(registry.query("app"), List.of("1.0", "1.1"));
+
+            Map<TagQuery, ResultContainer<Map<String, ManifestCache.Manifest>>> manifests = ImageTag.getManifests(tags);
+
+            assertEquals(List.copyOf(tags.keySet()), List.copyOf(manifests.keySet()));
+            // a missing tag is no error
+            ResultContainer<Map<String, ManifestCache.Manifest>> db = manifests.get(registry.query("db"));
+            assertFalse(db.getErrorMsg().isPresent(), () -> db.getErrorMsg().get());
+            assertEquals(Set.of("2.0"), db.getValue().keySet());
+            assertTrue(manifests.get(bad.query("app")).getErrorMsg().isPresent());
+            Map<String, ManifestCache.Manifest> app = manifests.get(registry.query("app")).getValue();
+            assertEquals(Set.of("1.0", "1.1"), app.keySet());
+            assertTrue(app.get("1.0").digest().startsWith("sha256:"));
+            assertNotEquals(app.get("1.0").digest(), app.get("1.1").digest());
+            assertEquals(4, registry.getRequests("manifests"));
+
+            Map<TagQuery, List<String>> existing = Map.of(registry.query("app"), List.of("1.1", "1.0"),
+                registry.query("db"), List.of("2.0"));
+            ImageTag.getManifests(existing).forEach((query, result) ->
+                assertEquals(Set.copyOf(existing.get(query)), result.getValue().keySet()));
+            assertEquals(4, registry.getRequests("manifests"));
+        }
+    }
+
+    @Test
+    void newestPushedTagsComeFirst(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+
+        // the fake registry created the images in the order of its tag list
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER)
+            .withTags("app", List.of("1.1", "latest", "1.0", "1.2"))) {
+            ResultContainer<List<String>> tags = ImageTag.getTags(newestFirst(registry, 0));
+            assertFalse(tags.getErrorMsg().isPresent(), () -> tags.getErrorMsg().get());
+            assertEquals(List.of("1.2", "1.0", "latest", "1.1"), tags.getValue());
+            assertEquals(4, registry.getRequests("blobs"));
+
+            // the creation times are kept, ordering the tags again costs no request
+            int manifests = registry.getRequests("manifests");
+            assertEquals(List.of("1.2", "1.0"), ImageTag.getTags(newestFirst(registry, 2)).getValue());
+            assertEquals(4, registry.getRequests("blobs"));
+            assertEquals(manifests, registry.getRequests("manifests"));
+        }
+    }
+
+    private static TagQuery newestFirst(FakeRegistry registry, int maxTags) {
+        return new TagQuery("app", registry.getUrl(), TagFilter.compile(".*"), FakeRegistry.USER, FakeRegistry.PASSWORD,
+            Ordering.DSC_CREATED, true, maxTags);
+    }
+
+    @Test
+    void failedChallengeIsNotCached(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BASIC)
+            .withTags("app", List.of("1.0", "1.1"))
+            .withFailures(1, 500)) {
+            assertTrue(ImageTag.getTags(registry.query("app")).getErrorMsg().isPresent());
+            assertNull(AuthCache.getChallenge(registry.getUrl()));
+
+            registry.withFailures(0, 500);
+            ResultContainer<List<String>> tags = ImageTag.getTags(registry.query("app"));
+            assertFalse(tags.getErrorMsg().isPresent(), () -> tags.getErrorMsg().get());
+            assertEquals(List.of("1.1", "1.0"), tags.getValue());
+            assertEquals("Basic", AuthCache.getChallenge(registry.getUrl())[0]);
+        }
+    }
+
+    @Test
+    void anonymousRegistryIsNotProbedAgain(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0"))) {
+            assertEquals(List.of("1.0"), ImageTag.getTags(registry.query("app")).getValue());
+            assertEquals(List.of("1.0"), ImageTag.getTags(registry.query("app")).getValue());
+            assertEquals(1, registry.getRequests("challenge"));
+            assertEquals(0, registry.getRequests("token"));
+        }
+    }
+
+    @Test
+    void rejectedAuthorizationIsRenewedOnce(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BASIC).withTags("app", List.of("1.0"))) {
+            // e.g. cached while the registry did not yet require authentication
+            AuthCache.putChallenge(registry.getUrl(), new String[] {"", "", ""});
+            ResultContainer<List<String>> tags = ImageTag.getTags(registry.query("app"));
+            assertFalse(tags.getErrorMsg().isPresent(), () -> tags.getErrorMsg().get());
+            assertEquals(List.of("1.0"), tags.getValue());
+            assertEquals(1, registry.getRequests("challenge"));
+
+            AuthCache.putChallenge(registry.getUrl(), new String[] {"", "", ""});
+            ResultContainer<Map<String, ManifestCache.Manifest>> manifests =
+                ImageTag.getManifests(registry.query("app"), List.of("1.0"));
+            assertFalse(manifests.getErrorMsg().isPresent(), () -> manifests.getErrorMsg().get());
+            assertTrue(manifests.getValue().containsKey("1.0"));
+            assertEquals(2, registry.getRequests("challenge"));
+        }
+    }
+
+    @Test
+    void revokedTokenIsRenewedOnce(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER).withTags("app", List.of("1.0"))) {
+            assertEquals(List.of("1.0"), ImageTag.getTags(registry.query("app")).getValue());
+            registry.revokeTokens();
+            ResultContainer<List<String>> tags = ImageTag.getTags(registry.query("app"));
+            assertFalse(tags.getErrorMsg().isPresent(), () -> tags.getErrorMsg().get());
+            assertEquals(2, registry.getRequests("token"));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.jenkins.plugins.luxair;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.model.Result;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.List;
+
+@WithJenkins
+class ImageTagsStepTest {
+
+    @Test
+    void returnsOrderedAndLimitedTags(JenkinsRule j) throws Exception {
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE)
+            .withTags("app", List.of("1.0", "1.10", "1.2", "latest"))) {
+            WorkflowRun run = j.buildAndAssertSuccess(pipeline(j, "def tags = imageTags(image: 'app', registry: '"
+                + registry.getUrl() + "', filter: '^1\\\\.', ordering: 'DSC_VERSION', limit: 2)\n"
+                + "echo \"tags: ${tags[0]} ${tags[1]} of ${tags.size()}\""));
+            j.assertLogContains("tags: 1.10 1.2 of 2", run);
+        }
+    }
+
+    @Test
+    void usesCredential(JenkinsRule j) throws Exception {
+        SystemCredentialsProvider.getInstance().getCredentials().add(new UsernamePasswordCredentialsImpl(
+            CredentialsScope.GLOBAL, "registry", "", FakeRegistry.USER, FakeRegistry.PASSWORD));
+        SystemCredentialsProvider.getInstance().save();
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER).withTags("app", List.of("1.0"))) {
+            WorkflowRun run = j.buildAndAssertSuccess(pipeline(j, "echo \"tag: ${imageTags(image: 'app', registry: '"
+                + registry.getUrl() + "', credentialId: 'registry')[0]}\""));
+            j.assertLogContains("tag: 1.0", run);
+
+            WorkflowJob unknown = pipeline(j, "imageTags(image: 'app', registry: '" + registry.getUrl()
+                + "', credentialId: 'unknown')");
+            j.assertLogContains("Credential unknown not found",
+                j.assertBuildStatus(Result.FAILURE, unknown.scheduleBuild2(0)));
+        }
+    }
+
+    @Test
+    void failsWhenNoTagsCanBeLookedUp(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.NONE).withTags("app", List.of("1.0"))
+            .withFailures(1, 500)) {
+            WorkflowJob job = pipeline(j, "imageTags(image: 'app', registry: '" + registry.getUrl() + "')");
+            j.assertBuildStatus(Result.FAILURE, job.scheduleBuild2(0));
+        }
+    }
+
+    private static WorkflowJob pipeline(JenkinsRule j, String script) throws Exception {
+        WorkflowJob job = j.createProject(WorkflowJob.class);
+        job.setDefinition(new CpsFlowDefinition(script, true));
+        return job;
+    }
+}
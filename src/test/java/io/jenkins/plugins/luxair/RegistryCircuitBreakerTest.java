@@ -0,0 +1,100 @@
+package io.jenkins.plugins.luxair;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Circuits are kept per registry for the lifetime of the JVM, so every test uses a registry of its own.
+ */
+class RegistryCircuitBreakerTest {
+
+    private static final int THRESHOLD = 5;
+
+    @Test
+    void staysClosedBelowThreshold(TestInfo info) {
+        String registry = registry(info);
+        fail(registry, THRESHOLD - 1);
+        assertNull(RegistryCircuitBreaker.acquire(registry));
+        assertFalse(state(registry).open());
+        assertEquals(THRESHOLD - 1, state(registry).failures());
+    }
+
+    @Test
+    void successResetsFailures(TestInfo info) {
+        String registry = registry(info);
+        fail(registry, THRESHOLD - 1);
+        RegistryCircuitBreaker.onResponse(registry, 200);
+        fail(registry, THRESHOLD - 1);
+        assertNull(RegistryCircuitBreaker.acquire(registry));
+        assertEquals(THRESHOLD - 1, state(registry).failures());
+    }
+
+    @Test
+    void clientErrorsAreNoFailures(TestInfo info) {
+        String registry = registry(info);
+        for (int status : new int[]{401, 404, 429}) {
+            fail(registry, THRESHOLD - 1);
+            RegistryCircuitBreaker.onResponse(registry, status);
+        }
+        assertNull(RegistryCircuitBreaker.acquire(registry));
+        assertEquals(0, state(registry).failures());
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures(TestInfo info) {
+        String registry = registry(info);
+        fail(registry, THRESHOLD - 1);
+        RegistryCircuitBreaker.onResponse(registry, 0);
+
+        String unavailable = RegistryCircuitBreaker.acquire(registry);
+        assertNotNull(unavailable);
+        assertTrue(unavailable.contains("unavailable after " + THRESHOLD + " failed requests"), unavailable);
+        RegistryCircuitBreaker.State state = state(registry);
+        assertTrue(state.open());
+        assertTrue(state.retryInSeconds() > 0);
+    }
+
+    @Test
+    void closesOnSuccess(TestInfo info) {
+        String registry = registry(info);
+        fail(registry, THRESHOLD);
+        assertNotNull(RegistryCircuitBreaker.acquire(registry));
+
+        // e.g. a request sent before the circuit opened
+        RegistryCircuitBreaker.onResponse(registry, 200);
+        assertNull(RegistryCircuitBreaker.acquire(registry));
+        assertFalse(state(registry).open());
+    }
+
+    @Test
+    void releaseKeepsCircuitState(TestInfo info) {
+        String registry = registry(info);
+        fail(registry, 2);
+        assertNull(RegistryCircuitBreaker.acquire(registry));
+        RegistryCircuitBreaker.release(registry);
+        assertEquals(2, state(registry).failures());
+    }
+
+    private static void fail(String registry, int times) {
+        for (int i = 0; i < times; i++) {
+            RegistryCircuitBreaker.onResponse(registry, i % 2 == 0 ? 503 : 0);
+        }
+    }
+
+    private static RegistryCircuitBreaker.State state(String registry) {
+        return RegistryCircuitBreaker.getStates().stream()
+            .filter(state -> state.registry().equals(registry))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static String registry(TestInfo info) {
+        return "https://" + info.getTestMethod().orElseThrow().getName().toLowerCase() + ".example.com";
+    }
+}
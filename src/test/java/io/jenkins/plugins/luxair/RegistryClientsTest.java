@@ -0,0 +1,73 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.model.Ordering;
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import io.jenkins.plugins.luxair.model.TagQuery;
+import io.jenkins.plugins.luxair.util.TagFilter;
+import kong.unirest.Empty;
+import kong.unirest.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@WithJenkins
+class RegistryClientsTest {
+
+    @Test
+    void parallelLookupsKeepTheirSslSettings(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(0);
+        List<String> tags = FakeRegistry.tags(200);
+
+        try (FakeRegistry selfSigned = FakeRegistry.startHttps(FakeRegistry.Auth.BEARER).withTags("app", tags);
+             FakeRegistry verified = FakeRegistry.start(FakeRegistry.Auth.BASIC).withTags("app", tags)) {
+            TagQuery insecure = query(selfSigned, false);
+            TagQuery secure = query(verified, true);
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<ResultContainer<List<String>>>> results = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    TagQuery query = i % 2 == 0 ? insecure : secure;
+                    results.add(executor.submit(() -> ImageTag.getTags(query)));
+                }
+                for (Future<ResultContainer<List<String>>> future : results) {
+                    ResultContainer<List<String>> result = future.get(1, TimeUnit.MINUTES);
+                    assertFalse(result.getErrorMsg().isPresent(), () -> result.getErrorMsg().get());
+                    assertEquals(tags.size(), result.getValue().size());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertSame(RegistryClients.get(selfSigned.getUrl(), false), RegistryClients.get(selfSigned.getUrl(), false));
+            assertNotSame(RegistryClients.get(selfSigned.getUrl(), false), RegistryClients.get(selfSigned.getUrl(), true));
+
+            // skipping the verification of one client must not affect another one of the same registry
+            HttpResponse<Empty> rejected = RegistryClients.get(selfSigned.getUrl(), true)
+                .get(selfSigned.getUrl() + "/v2/")
+                .asEmpty();
+            assertEquals(0, rejected.getStatus());
+            HttpResponse<Empty> accepted = RegistryClients.get(selfSigned.getUrl(), false)
+                .get(selfSigned.getUrl() + "/v2/")
+                .asEmpty();
+            assertEquals(401, accepted.getStatus());
+        }
+    }
+
+    private static TagQuery query(FakeRegistry registry, boolean verifySsl) {
+        return new TagQuery("app", registry.getUrl(), TagFilter.compile(".*"), FakeRegistry.USER,
+            FakeRegistry.PASSWORD, Ordering.NATURAL, verifySsl, 0);
+    }
+}
@@ -0,0 +1,232 @@
+package io.jenkins.plugins.luxair;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Result;
+import io.jenkins.plugins.luxair.model.Ordering;
+import net.sf.json.JSONObject;
+import org.htmlunit.HttpMethod;
+import org.htmlunit.Page;
+import org.htmlunit.WebRequest;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renders the build form of a job with many image tag parameters, loads their tags and triggers builds, all
+ * concurrently, against a slow and flaky {@link FakeRegistry}. The latency of the requests is logged, the assertions
+ * only count the requests the registry received, so they do not depend on the speed of the machine.
+ */
+@WithJenkins
+class RegistryLoadTest {
+
+    private static final Logger logger = Logger.getLogger(RegistryLoadTest.class.getName());
+    private static final String CREDENTIAL_ID = "fake-registry";
+    private static final int IMAGES = 10;
+    private static final int TAGS = 1500;
+    private static final int THREADS = 16;
+    private static final int RENDERS = 400;
+    private static final int BUILDS = 50;
+
+    @Test
+    void concurrentRendersAndBuildsAreServedFromCache(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        config.setTagCacheTtl(60);
+        config.setTagPageSize(500);
+        config.setRegistryRetries(2);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER)
+            .withPageSize(500)
+            .withLatency(20)
+            .withFailures(25, 502)) {
+            FreeStyleProject job = createJob(j, registry, "cached");
+
+            List<Long> latencies = load(j, job, RENDERS, BUILDS);
+            report("cached", registry, latencies);
+
+            // each repository takes 3 pages, a few more for attempts that failed and were retried
+            int tagRequests = registry.getRequests("tags");
+            assertTrue(tagRequests <= IMAGES * 3 * 2, "Lookups were not coalesced: " + tagRequests + " tag list requests");
+            assertTrue(registry.getRequests("token") <= IMAGES * 2,
+                "Tokens were not reused: " + registry.getRequests("token") + " token requests");
+            assertTrue(registry.getRequests("challenge") <= THREADS,
+                "Challenges were not reused: " + registry.getRequests("challenge") + " challenge requests");
+        }
+    }
+
+    @Test
+    void uncachedBuildsSurviveInjectedFailures(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration config = ImageTagParameterConfiguration.get();
+        config.setTagCacheTtl(0);
+        config.setTagPageSize(500);
+        config.setRegistryRetries(2);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BEARER)
+            .withPageSize(500)
+            .withLatency(5)
+            .withFailures(20, 504)) {
+            FreeStyleProject job = createJob(j, registry, "uncached");
+
+            List<Long> latencies = load(j, job, 40, BUILDS);
+            report("uncached", registry, latencies);
+
+            assertTrue(registry.getRequests("tags") >= 40 * IMAGES * 3, "Every render should fetch all pages");
+        }
+    }
+
+    @Test
+    void rateLimitedRegistryServesStaleTags(JenkinsRule j) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(1);
+
+        try (FakeRegistry registry = FakeRegistry.start(FakeRegistry.Auth.BASIC)) {
+            FreeStyleProject job = createJob(j, registry, "limited");
+            JenkinsRule.WebClient wc = j.createWebClient();
+            assertEquals(TAGS, loadTags(wc, job).getJSONObject("IMAGE_0").getInt("total"));
+
+            registry.withFailures(1, 429);
+            Thread.sleep(1100);
+            registry.resetRequests();
+            for (int i = 0; i < 20; i++) {
+                JSONObject tags = loadTags(wc, job);
+                for (int image = 0; image < IMAGES; image++) {
+                    assertEquals(TAGS, tags.getJSONObject("IMAGE_" + image).getInt("total"),
+                        "Stale tags should be served while rate limited");
+                }
+            }
+            // the first refreshes are answered with 429, the Retry-After holds back the following ones
+            assertTrue(registry.getTotalRequests() <= IMAGES * 2,
+                "Requests were not held back: " + registry.getTotalRequests());
+        }
+    }
+
+    /**
+     * A job with one parameter per image of the registry, each image having {@link #TAGS} tags, whose tags are
+     * validated when a build is triggered.
+     */
+    private static FreeStyleProject createJob(JenkinsRule j, FakeRegistry registry, String name) throws Exception {
+        SystemCredentialsProvider.getInstance().getCredentials().add(new UsernamePasswordCredentialsImpl(
+            CredentialsScope.GLOBAL, CREDENTIAL_ID, "", FakeRegistry.USER, FakeRegistry.PASSWORD));
+        SystemCredentialsProvider.getInstance().save();
+
+        List<ParameterDefinition> definitions = new ArrayList<>();
+        for (int i = 0; i < IMAGES; i++) {
+            registry.withTags("load/image-" + i, FakeRegistry.tags(TAGS));
+            ImageTagParameterDefinition definition = new ImageTagParameterDefinition("IMAGE_" + i, "",
+                "load/image-" + i, ".*", "", registry.getUrl(), CREDENTIAL_ID, Ordering.DSC_VERSION);
+            definition.setValidateTag(true);
+            definitions.add(definition);
+        }
+        FreeStyleProject job = j.createFreeStyleProject(name);
+        job.addProperty(new ParametersDefinitionProperty(definitions));
+        job.setConcurrentBuild(true);
+        return job;
+    }
+
+    /**
+     * Renders the build form and loads the tags of all its parameters the given number of times, while triggering the
+     * given number of builds, then waits for the builds to complete.
+     *
+     * @return the latency of each request in nanoseconds
+     */
+    private static List<Long> load(JenkinsRule j, FreeStyleProject job, int renders, int builds) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(renders * 2 + builds));
+        ThreadLocal<JenkinsRule.WebClient> clients = ThreadLocal.withInitial(() -> {
+            JenkinsRule.WebClient wc = j.createWebClient();
+            wc.getOptions().setJavaScriptEnabled(false);
+            return wc;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < renders; i++) {
+                futures.add(executor.submit(() -> {
+                    JenkinsRule.WebClient wc = clients.get();
+                    long start = System.nanoTime();
+                    wc.goTo(job.getUrl() + "build?delay=0sec");
+                    latencies.add(System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    JSONObject tags = loadTags(wc, job);
+                    latencies.add(System.nanoTime() - start);
+                    for (int image = 0; image < IMAGES; image++) {
+                        JSONObject parameter = tags.getJSONObject("IMAGE_" + image);
+                        assertEquals(TAGS, parameter.getInt("total"), parameter.getString("errorMsg"));
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < builds; i++) {
+                String tag = "1." + i % 15 + "." + i % 100;
+                futures.add(executor.submit(() -> {
+                    JenkinsRule.WebClient wc = clients.get();
+                    StringBuilder url = new StringBuilder(j.getURL().toString())
+                        .append(job.getUrl()).append("buildWithParameters?delay=0sec");
+                    for (int image = 0; image < IMAGES; image++) {
+                        url.append("&IMAGE_").append(image).append('=').append(tag);
+                    }
+                    WebRequest request = new WebRequest(new URL(url.toString()), HttpMethod.POST);
+                    long start = System.nanoTime();
+                    Page page = wc.getPage(wc.addCrumb(request));
+                    latencies.add(System.nanoTime() - start);
+                    assertEquals(201, page.getWebResponse().getStatusCode());
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        j.waitUntilNoActivity();
+        assertFalse(job.getBuilds().isEmpty());
+        job.getBuilds().forEach(build -> assertEquals(Result.SUCCESS, build.getResult()));
+        return latencies;
+    }
+
+    private static JSONObject loadTags(JenkinsRule.WebClient wc, FreeStyleProject job) throws Exception {
+        StringBuilder url = new StringBuilder(job.getUrl())
+            .append("descriptorByName/").append(ImageTagParameterDefinition.class.getName()).append("/tags?limit=10");
+        for (int image = 0; image < IMAGES; image++) {
+            url.append("&name=IMAGE_").append(image);
+        }
+        Page page = wc.goTo(url.toString(), "application/json");
+        return JSONObject.fromObject(page.getWebResponse().getContentAsString());
+    }
+
+    private static void report(String name, FakeRegistry registry, List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        logger.info(String.format("%s: %d requests, p50 %.1f ms, p99 %.1f ms, max %.1f ms; registry requests: "
+                + "%d challenge, %d token, %d tags, %d manifests, %d total",
+            name, sorted.size(), millis(percentile(sorted, 50)), millis(percentile(sorted, 99)),
+            millis(sorted.get(sorted.size() - 1)), registry.getRequests("challenge"), registry.getRequests("token"),
+            registry.getRequests("tags"), registry.getRequests("manifests"), registry.getTotalRequests()));
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
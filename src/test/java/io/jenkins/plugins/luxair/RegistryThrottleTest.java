@@ -0,0 +1,86 @@
+package io.jenkins.plugins.luxair;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Buckets are kept per registry for the lifetime of the JVM, so every test uses a registry of its own.
+ */
+@WithJenkins
+class RegistryThrottleTest {
+
+    @Test
+    void unlimitedByDefault(JenkinsRule j, TestInfo info) {
+        String registry = registry(info);
+        for (int i = 0; i < 1000; i++) {
+            assertNull(RegistryThrottle.acquire(registry));
+        }
+    }
+
+    @Test
+    void limitsRequestsPerSecond(JenkinsRule j, TestInfo info) {
+        ImageTagParameterConfiguration.get().setRegistryRequestsPerSecond(2);
+        String registry = registry(info);
+        long start = System.nanoTime();
+        assertNull(RegistryThrottle.acquire(registry));
+        assertNull(RegistryThrottle.acquire(registry));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 250, "The first second is a burst");
+        assertNull(RegistryThrottle.acquire(registry));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400, "The third request should wait");
+    }
+
+    @Test
+    void backsOffAfterTooManyRequests(JenkinsRule j, TestInfo info) {
+        String registry = registry(info);
+        RegistryThrottle.onResponse(registry, 429, "2");
+        String throttled = RegistryThrottle.acquire(registry);
+        assertNotNull(throttled);
+        assertTrue(throttled.contains("asked to retry after 2 seconds"), throttled);
+        assertNull(RegistryThrottle.acquire(registry + "/other"), "Other registries are not affected");
+    }
+
+    @Test
+    void backsOffUntilHttpDate(JenkinsRule j, TestInfo info) {
+        String registry = registry(info);
+        String inOneMinute = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+        RegistryThrottle.onResponse(registry, 503, inOneMinute);
+        assertNotNull(RegistryThrottle.acquire(registry));
+
+        String past = registry + "/past";
+        String aMinuteAgo = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        RegistryThrottle.onResponse(past, 503, aMinuteAgo);
+        assertNull(RegistryThrottle.acquire(past));
+    }
+
+    @Test
+    void backsOffByDefaultWithoutRetryAfter(JenkinsRule j, TestInfo info) {
+        String registry = registry(info);
+        RegistryThrottle.onResponse(registry, 503, null);
+        String throttled = RegistryThrottle.acquire(registry);
+        assertNotNull(throttled);
+        assertTrue(throttled.contains("asked to retry after 30 seconds"), throttled);
+    }
+
+    @Test
+    void ignoresOtherStatuses(JenkinsRule j, TestInfo info) {
+        String registry = registry(info);
+        RegistryThrottle.onResponse(registry, 500, "60");
+        RegistryThrottle.onResponse(registry, 200, "60");
+        assertNull(RegistryThrottle.acquire(registry));
+    }
+
+    private static String registry(TestInfo info) {
+        return "https://" + info.getTestMethod().orElseThrow().getName().toLowerCase() + ".example.com";
+    }
+}
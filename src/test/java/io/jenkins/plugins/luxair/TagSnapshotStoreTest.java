@@ -0,0 +1,94 @@
+package io.jenkins.plugins.luxair;
+
+import io.jenkins.plugins.luxair.model.ResultContainer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WithJenkins
+class TagSnapshotStoreTest {
+
+    private static final List<String> TAGS = List.of("1.0", "1.1", "latest");
+
+    @Test
+    void storesAndLoadsSnapshot(JenkinsRule j, TestInfo info) throws Exception {
+        ImageTagCache.Key key = key(info);
+        TagSnapshotStore.save(key, new TagSnapshotStore.Snapshot(TAGS, 1234567890L));
+        TagSnapshotStore.Snapshot snapshot = awaitSnapshot(key);
+        assertEquals(TAGS, snapshot.tags());
+        assertEquals(1234567890L, snapshot.fetchedAt());
+    }
+
+    @Test
+    void skipsUnchangedTags(JenkinsRule j, TestInfo info) throws Exception {
+        ImageTagParameterConfiguration.get().setTagCacheTtl(60);
+        ImageTagCache.Key key = key(info);
+        ImageTagCache.get().put(key, TAGS, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(11));
+
+        // revalidation handed out the very same list, which was stored less than an hour ago
+        assertEquals(TAGS, ImageTagCache.get().get(key, () -> new ResultContainer<>(TAGS)).getValue());
+        Thread.sleep(500);
+        assertNull(TagSnapshotStore.load(key));
+
+        ImageTagCache.get().put(key, TAGS, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(11));
+        List<String> changed = new ArrayList<>(TAGS);
+        changed.add("1.2");
+        ImageTagCache.get().get(key, () -> new ResultContainer<>(changed));
+        assertEquals(changed, awaitSnapshot(key).tags());
+    }
+
+    @Test
+    void prunesOutdatedSnapshots(JenkinsRule j, TestInfo info) throws Exception {
+        File directory = new File(j.jenkins.getRootDir(), "image-tag-parameter/tags");
+        ImageTagCache.Key outdated = key(info);
+        TagSnapshotStore.save(outdated, new TagSnapshotStore.Snapshot(TAGS, System.currentTimeMillis()));
+        File[] written = awaitFiles(directory, 1);
+        assertTrue(written[0].setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31)));
+
+        ImageTagCache.Key recent = new ImageTagCache.Key(outdated.registry(), outdated.image() + "-recent", "");
+        TagSnapshotStore.save(recent, new TagSnapshotStore.Snapshot(TAGS, System.currentTimeMillis()));
+        awaitFiles(directory, 2);
+
+        assertEquals(1, TagSnapshotStore.prune());
+        assertNull(TagSnapshotStore.load(outdated));
+        assertNotNull(TagSnapshotStore.load(recent));
+        assertEquals(0, TagSnapshotStore.prune());
+    }
+
+    private static File[] awaitFiles(File directory, int count) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".gz"));
+            if (files != null && files.length == count) {
+                return files;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Expected " + count + " snapshots in " + directory);
+    }
+
+    private static TagSnapshotStore.Snapshot awaitSnapshot(ImageTagCache.Key key) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            TagSnapshotStore.Snapshot snapshot = TagSnapshotStore.load(key);
+            if (snapshot != null) {
+                return snapshot;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No snapshot of " + key + " written");
+    }
+
+    private static ImageTagCache.Key key(TestInfo info) {
+        return new ImageTagCache.Key("https://registry.example.com", info.getTestMethod().orElseThrow().getName(), "");
+    }
+}
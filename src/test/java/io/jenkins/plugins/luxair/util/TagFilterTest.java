@@ -0,0 +1,75 @@
+package io.jenkins.plugins.luxair.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every pattern, whether answered by a fast path or the regex engine, must match exactly like
+ * {@link String#matches(String)}.
+ */
+class TagFilterTest {
+
+    private static final List<String> PATTERNS = List.of(
+        // match all
+        ".*",
+        // equals
+        "latest", "1\\.2\\.3", "lts-jdk17",
+        // startsWith
+        "1\\.2.*", "lts.*", "v.*", "1\\..*",
+        // endsWith
+        ".*-alpine", ".*\\.0", ".*jdk17",
+        // contains
+        ".*jdk.*", ".*\\.2\\..*", ".*-.*",
+        // escaped trailing wildcard and other literals that are no fast path
+        "1\\.2\\.*", "1\\.2\\.\\*", ".*\\.*", "\\.*",
+        // regular expressions
+        "1.2", "^1\\.2.*$", "\\d+\\.\\d+\\.\\d+", "(lts|latest).*", "v?[0-9]+", "1\\.2.*-alpine", ".*-(alpine|slim)",
+        "[a-z]+", "1\\.2\\.3|latest", "\\Q1.2\\E.*", "a.*b", ".*.*", ".+", "");
+
+    private static final List<String> TAGS = List.of(
+        "latest", "1.2.3", "1.2.3-alpine", "1.2", "1.2.0", "1.20", "12.3", "1-2", "v1.2", "v", "lts", "lts-jdk17",
+        "lts-jdk21-alpine", "jdk17", "2.492.3-jdk17", "1.2.*", "1.2*", "*", ".", "..", "", "a-b", "ab", "1.0",
+        "alpine", "-alpine", "1.2.3-slim", "1\\.2");
+
+    @Test
+    void matchesLikeStringMatches() {
+        for (String pattern : PATTERNS) {
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            TagFilter filter = TagFilter.compile(pattern);
+            for (String tag : TAGS) {
+                assertEquals(tag.matches(pattern), filter.test(tag),
+                    "'" + tag + "' matched against '" + pattern + "'");
+            }
+        }
+    }
+
+    @Test
+    void emptyPatternMatchesAllTags() {
+        for (String pattern : new String[]{"", null}) {
+            TagFilter filter = TagFilter.compile(pattern);
+            assertEquals(".*", filter.getPattern());
+            assertTrue(TAGS.stream().allMatch(filter));
+        }
+    }
+
+    @Test
+    void keepsPattern() {
+        assertEquals("1\\.2.*", TagFilter.compile("1\\.2.*").getPattern());
+        assertEquals("\\d+", TagFilter.compile("\\d+").toString());
+    }
+
+    @Test
+    void rejectsInvalidPatterns() {
+        assertThrows(PatternSyntaxException.class, () -> TagFilter.compile("1.2("));
+        assertThrows(PatternSyntaxException.class, () -> TagFilter.compile("*"));
+        assertThrows(PatternSyntaxException.class, () -> TagFilter.compile(".*[.*"));
+    }
+}
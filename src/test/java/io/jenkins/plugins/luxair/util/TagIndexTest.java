@@ -0,0 +1,59 @@
+package io.jenkins.plugins.luxair.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagIndexTest {
+
+    private static final List<String> SOURCE = List.of("latest", "1.0-Alpine", "1.0", "1.1-alpine", "1.1", "2.0-ALPINE");
+    private static final List<String> TAGS = List.of("2.0-ALPINE", "1.1-alpine", "1.1", "1.0-Alpine", "1.0");
+
+    private final TagIndex index = new TagIndex(SOURCE, TAGS);
+
+    @Test
+    void pagesThroughAllTagsWithoutKeyword() {
+        assertEquals(new TagIndex.Page(List.of("2.0-ALPINE", "1.1-alpine"), 5), index.search("", 0, 2));
+        assertEquals(new TagIndex.Page(List.of("1.1", "1.0-Alpine"), 5), index.search(null, 2, 2));
+        assertEquals(new TagIndex.Page(List.of("1.0"), 5), index.search("  ", 4, 2));
+        assertEquals(new TagIndex.Page(List.of(), 5), index.search("", 10, 2));
+        assertEquals(new TagIndex.Page(TAGS, 5), index.search("", 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void searchesIgnoringCaseAndKeepsOrdering() {
+        assertEquals(new TagIndex.Page(List.of("2.0-ALPINE", "1.1-alpine", "1.0-Alpine"), 3), index.search("Alpine", 0, 10));
+        assertEquals(new TagIndex.Page(List.of("1.0-Alpine"), 3), index.search(" alpine ", 2, 10));
+        assertEquals(new TagIndex.Page(List.of("1.1-alpine"), 3), index.search("ALPINE", 1, 1));
+        assertEquals(new TagIndex.Page(List.of(), 0), index.search("latest", 0, 10));
+    }
+
+    @Test
+    void clampsNegativeOffsetAndLimit() {
+        assertEquals(new TagIndex.Page(List.of("2.0-ALPINE"), 5), index.search("", -3, 1));
+        assertEquals(new TagIndex.Page(List.of(), 5), index.search("", 0, -1));
+        assertEquals(new TagIndex.Page(List.of(), 3), index.search("alpine", -1, -1));
+    }
+
+    @Test
+    void containsExactTags() {
+        assertTrue(index.contains("1.1"));
+        assertTrue(index.contains("2.0-ALPINE"));
+        assertFalse(index.contains("2.0-alpine"));
+        assertFalse(index.contains("latest"));
+        assertFalse(TagIndex.EMPTY.contains("1.0"));
+        assertEquals(5, index.size());
+        assertEquals(TAGS, index.getTags());
+    }
+
+    @Test
+    void isBuiltFromTheSameInstanceOnly() {
+        assertTrue(index.isBuiltFrom(SOURCE));
+        assertFalse(index.isBuiltFrom(new ArrayList<>(SOURCE)));
+    }
+}
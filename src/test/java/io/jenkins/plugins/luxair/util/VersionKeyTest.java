@@ -0,0 +1,108 @@
+package io.jenkins.plugins.luxair.util;
+
+import hudson.util.VersionNumber;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sorts tag lists with both {@link VersionKey} and {@link VersionNumber}, which must agree on every pair of tags.
+ */
+class VersionKeyTest {
+
+    private static final List<String> TAGS = List.of(
+        // plain numeric
+        "1", "1.2", "1.2.3", "1.10", "2.492.3", "10.0.1", "0", "0.0.1",
+        // leading zeros
+        "01", "1.02", "1.002.3", "001.2", "1.0010",
+        // trailing zeros
+        "1.0", "1.0.0", "1.2.0", "1.2.0.0", "0.0", "2.0",
+        // parts exceeding a long or close to it
+        "999999999999999999", "1000000000000000000", "1.9223372036854775807", "1.9223372036854775808",
+        "1.12345678901234567890", "12345678901234567890123", "0000000000000000000000001", "1.0000000000000000000001",
+        // empty parts
+        "1..2", ".1", "1.", ".", "1...0",
+        // qualifiers and others
+        "1.0-rc1", "1.0-rc2", "1.0-SNAPSHOT", "1.0-alpha", "1.0-beta-2", "1.2.3-alpine", "1.2.3-jdk17", "2.492.3-lts",
+        "v1.2", "latest", "alpine", "lts-jdk17", "1.2_3", "1-2", "sha-3f2a9c1", "20240131", "2024.01.31", "1.0.0.Final");
+
+    @Test
+    void ordersLikeVersionNumber() {
+        assertSameOrder(TAGS);
+    }
+
+    @Test
+    void ordersGeneratedTagsLikeVersionNumber() {
+        Random random = new Random(42);
+        String[] qualifiers = {"", "", "", "-rc1", "-SNAPSHOT", "-alpine", "-beta"};
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder tag = new StringBuilder();
+            int parts = 1 + random.nextInt(4);
+            for (int part = 0; part < parts; part++) {
+                if (part > 0) {
+                    tag.append('.');
+                }
+                int kind = random.nextInt(10);
+                if (kind == 0) {
+                    tag.append('0').append(random.nextInt(10));
+                } else if (kind == 1) {
+                    tag.append('0');
+                } else if (kind == 2) {
+                    tag.append(random.nextLong() & Long.MAX_VALUE).append(random.nextInt(1000));
+                } else {
+                    tag.append(random.nextInt(30));
+                }
+            }
+            tag.append(qualifiers[random.nextInt(qualifiers.length)]);
+            tags.add(tag.toString());
+        }
+        assertSameOrder(tags);
+    }
+
+    @Test
+    void parsesOnlyPlainNumericTags() {
+        assertTrue(new VersionKey("1.2.3").isNumeric());
+        assertTrue(new VersionKey("01.0").isNumeric());
+        assertTrue(new VersionKey("999999999999999999").isNumeric());
+        assertTrue(new VersionKey("0000000000000000000001").isNumeric());
+        assertFalse(new VersionKey("1000000000000000000").isNumeric());
+        assertFalse(new VersionKey("1..2").isNumeric());
+        assertFalse(new VersionKey("1.").isNumeric());
+        assertFalse(new VersionKey("").isNumeric());
+        assertFalse(new VersionKey("1.0-rc1").isNumeric());
+        assertEquals(0, new VersionKey("1.0.0").compareTo(new VersionKey("1")));
+    }
+
+    private static void assertSameOrder(List<String> tags) {
+        List<String> byVersionKey = tags.stream()
+            .map(VersionKey::new)
+            .sorted()
+            .map(VersionKey::getTag)
+            .collect(Collectors.toList());
+        List<String> byVersionNumber = tags.stream()
+            .sorted(Comparator.comparing(VersionNumber::new))
+            .collect(Collectors.toList());
+        assertEquals(byVersionNumber, byVersionKey);
+
+        List<VersionKey> keys = tags.stream().map(VersionKey::new).collect(Collectors.toList());
+        List<VersionNumber> versions = tags.stream().map(VersionNumber::new).collect(Collectors.toList());
+        for (int a = 0; a < tags.size(); a++) {
+            for (int b = 0; b < tags.size(); b++) {
+                int expected = Integer.signum(versions.get(a).compareTo(versions.get(b)));
+                int actual = Integer.signum(keys.get(a).compareTo(keys.get(b)));
+                if (expected != actual) {
+                    assertEquals(expected, actual, "Comparing " + tags.get(a) + " with " + tags.get(b));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+#!/bin/sh
+# Requests the tags of an image tag parameter concurrently, like many users opening the build form at once, and
+# reports the latency percentiles, e.g.
+#   JENKINS_URL=http://localhost:8080 JENKINS_AUTH=admin:token ./load.sh job/load-test DOCKER_IMAGE 20 500
+set -e
+
+JOB=${1:?job path, e.g. job/load-test}
+PARAMETER=${2:-DOCKER_IMAGE}
+CONCURRENCY=${3:-20}
+REQUESTS=${4:-500}
+JENKINS_URL=${JENKINS_URL:-http://localhost:8080}
+URL="$JENKINS_URL/$JOB/descriptorByName/io.jenkins.plugins.luxair.ImageTagParameterDefinition/tags?name=$PARAMETER&q=&offset=0&limit=100"
+
+TIMES=$(mktemp)
+trap 'rm -f "$TIMES"' EXIT
+
+seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I {} \
+    curl -s -o /dev/null ${JENKINS_AUTH:+-u "$JENKINS_AUTH"} -w '%{http_code} %{time_total}\n' "$URL" >> "$TIMES"
+
+sort -k2 -n "$TIMES" | awk '
+    { status[$1]++; times[NR] = $2 }
+    END {
+        printf "requests: %d\n", NR
+        for (code in status) printf "HTTP %s: %d\n", code, status[code]
+        printf "p50: %.0f ms\n", times[int(NR * 0.50) > 0 ? int(NR * 0.50) : 1] * 1000
+        printf "p99: %.0f ms\n", times[int(NR * 0.99) > 0 ? int(NR * 0.99) : 1] * 1000
+        printf "max: %.0f ms\n", times[NR] * 1000
+    }'
+echo "Registry requests and stage latencies: $JENKINS_URL/descriptorByName/io.jenkins.plugins.luxair.ImageTagParameterConfiguration/status"
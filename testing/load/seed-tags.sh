@@ -0,0 +1,19 @@
+#!/bin/sh
+# Pushes a tiny image to the local registry and tags it many times, e.g. ./seed-tags.sh load/app 5000
+set -e
+
+IMAGE=${1:-load/app}
+COUNT=${2:-1000}
+REGISTRY=${REGISTRY:-localhost:5000}
+CRANE="docker run --rm --network host gcr.io/go-containerregistry/crane:latest"
+
+$CRANE copy --insecure busybox:latest "$REGISTRY/$IMAGE:1.0.0"
+
+# a tag is only a manifest PUT referencing the same blobs, so this takes seconds
+i=1
+while [ "$i" -lt "$COUNT" ]; do
+    echo "$REGISTRY/$IMAGE:1.$((i / 100)).$((i % 100))"
+    i=$((i + 1))
+done | xargs -P 8 -I {} sh -c "$CRANE tag --insecure $REGISTRY/$IMAGE:1.0.0 \$(echo {} | sed 's/.*://')"
+
+echo "Tagged $REGISTRY/$IMAGE $COUNT times"
@@ -0,0 +1,34 @@
+#!/bin/sh
+# Injects latency or failures between Jenkins and the registry on localhost:5001, e.g.
+#   ./toxics.sh latency 300     every response delayed by 300 ms (+/- 25%)
+#   ./toxics.sh reset 0.1       10% of the connections reset
+#   ./toxics.sh timeout 0.1     10% of the connections hang until Jenkins times out
+#   ./toxics.sh clear           remove all toxics
+set -e
+
+API=${TOXIPROXY_API:-http://localhost:8474}
+
+add() {
+    curl -sf -X POST "$API/proxies/registry/toxics" -H 'Content-Type: application/json' -d "$1" > /dev/null
+}
+
+case "$1" in
+    latency)
+        add "{\"name\":\"latency\",\"type\":\"latency\",\"attributes\":{\"latency\":${2:-300},\"jitter\":$(( ${2:-300} / 4 ))}}"
+        ;;
+    reset)
+        add "{\"name\":\"reset\",\"type\":\"reset_peer\",\"toxicity\":${2:-0.1},\"attributes\":{\"timeout\":0}}"
+        ;;
+    timeout)
+        add "{\"name\":\"timeout\",\"type\":\"timeout\",\"toxicity\":${2:-0.1},\"attributes\":{\"timeout\":0}}"
+        ;;
+    clear)
+        for toxic in latency reset timeout; do
+            curl -s -X DELETE "$API/proxies/registry/toxics/$toxic" > /dev/null || true
+        done
+        ;;
+    *)
+        echo "usage: $0 latency [ms] | reset [ratio] | timeout [ratio] | clear" >&2
+        exit 1
+        ;;
+esac